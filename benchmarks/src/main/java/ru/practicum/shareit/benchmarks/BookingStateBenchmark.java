@@ -0,0 +1,31 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбор параметра state списков бронирований, включая ветку с неизвестным значением.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingStateBenchmark {
+
+    @Param({"ALL", "current", "Rejected", "unknown"})
+    private String state;
+
+    @Benchmark
+    public Object from() {
+        try {
+            return BookingState.from(state);
+        } catch (ValidationException e) {
+            return e;
+        }
+    }
+}
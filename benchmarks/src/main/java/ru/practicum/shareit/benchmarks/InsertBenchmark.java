@@ -0,0 +1,121 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Вставка бронирований и отзывов пачками по {@value #ROWS_PER_TRANSACTION} вызовов save в одной транзакции
+ * на встроенной H2. Пропускная способность — число транзакций в секунду; строк в секунду — в
+ * {@value #ROWS_PER_TRANSACTION} раз больше.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class InsertBenchmark {
+
+    private static final int ROWS_PER_TRANSACTION = 100;
+    private static final long OWNER_ID = 1L;
+    private static final long BOOKER_ID = 2L;
+    private static final long ITEM_ID = 1L;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private BookingRepository bookingRepository;
+    private CommentRepository commentRepository;
+    private UserRepository userRepository;
+    private ItemRepository itemRepository;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:insert-benchmarks",
+                        "--spring.jpa.generate-ddl=false",
+                        "--spring.jpa.show-sql=false",
+                        "--shareit.booking-summary.roll-forward-cron=-",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--logging.level.root=WARN",
+                        "--logging.level.ru.practicum=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (?, 'Владелец', 'owner@mail.ru')", OWNER_ID);
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (?, 'Арендатор', 'booker@mail.ru')", BOOKER_ID);
+        jdbcTemplate.update("INSERT INTO items (id, name, description, is_available, owner_id) " +
+                "VALUES (?, 'Дрель', 'Ударная', TRUE, ?)", ITEM_ID, OWNER_ID);
+
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        commentRepository = context.getBean(CommentRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+        itemRepository = context.getBean(ItemRepository.class);
+    }
+
+    // Таблицы не растут от итерации к итерации, иначе замер зависел бы от её длительности
+    @TearDown(Level.Iteration)
+    public void clear() {
+        jdbcTemplate.update("DELETE FROM bookings");
+        jdbcTemplate.update("DELETE FROM comments");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int insertBookings() {
+        return transactionTemplate.execute(status -> {
+            Item item = itemRepository.getReferenceById(ITEM_ID);
+            User booker = userRepository.getReferenceById(BOOKER_ID);
+            LocalDateTime start = LocalDateTime.now().plusDays(1);
+            for (int i = 0; i < ROWS_PER_TRANSACTION; i++) {
+                bookingRepository.save(new Booking(null, start.plusDays(i), start.plusDays(i).plusHours(2),
+                        item, booker, BookingStatus.WAITING, null));
+            }
+            return ROWS_PER_TRANSACTION;
+        });
+    }
+
+    @Benchmark
+    public int insertComments() {
+        return transactionTemplate.execute(status -> {
+            Item item = itemRepository.getReferenceById(ITEM_ID);
+            User author = userRepository.getReferenceById(BOOKER_ID);
+            LocalDateTime created = LocalDateTime.now();
+            for (int i = 0; i < ROWS_PER_TRANSACTION; i++) {
+                Comment comment = new Comment();
+                comment.setText("Отзыв " + i);
+                comment.setItem(item);
+                comment.setAuthor(author);
+                comment.setCreated(created);
+                commentRepository.save(comment);
+            }
+            return ROWS_PER_TRANSACTION;
+        });
+    }
+}
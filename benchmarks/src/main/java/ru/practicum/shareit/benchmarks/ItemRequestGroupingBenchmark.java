@@ -0,0 +1,76 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestedItemDto;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.shareit.benchmarks.StubRepositories.stub;
+
+/**
+ * Группировка ответов по запросам в ItemRequestServiceImpl (mapRequestsWithItems) без базы данных:
+ * репозитории отдают заранее подготовленные списки.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemRequestGroupingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int requestCount;
+
+    @Param({"3"})
+    private int itemsPerRequest;
+
+    private ItemRequestServiceImpl service;
+
+    @Setup
+    public void setup() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RequestedItemDto> items = new ArrayList<>();
+        long itemId = 0;
+        for (long requestId = 1; requestId <= requestCount; requestId++) {
+            for (int i = 0; i < itemsPerRequest; i++) {
+                itemId++;
+                items.add(new RequestedItemDto(requestId, itemId, "Вещь " + itemId, 2L, "Владелец"));
+            }
+        }
+
+        // Сервис дописывает ответы в DTO запросов, поэтому каждый вызов получает новый список
+        ItemRequestRepository requestRepository = stub(ItemRequestRepository.class,
+                Map.of("findDtosByRequesterId", arguments -> requests(now)));
+        UserRepository userRepository = stub(UserRepository.class,
+                Map.of("existsById", arguments -> true));
+        ItemRepository itemRepository = stub(ItemRepository.class,
+                Map.of("findRequestedItems", arguments -> items));
+
+        service = new ItemRequestServiceImpl(requestRepository, userRepository, itemRepository,
+                new ItemRequestMapper());
+    }
+
+    private List<ItemRequestDto> requests(LocalDateTime now) {
+        List<ItemRequestDto> requests = new ArrayList<>(requestCount);
+        for (long requestId = 1; requestId <= requestCount; requestId++) {
+            requests.add(new ItemRequestDto(requestId, "Нужна вещь " + requestId, now.minusMinutes(requestId)));
+        }
+        return requests;
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> getOwnRequests() {
+        return service.getOwnRequests(1L);
+    }
+}
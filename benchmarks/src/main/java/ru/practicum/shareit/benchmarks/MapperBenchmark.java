@@ -0,0 +1,77 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDtoOutput;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразование сущностей в DTO: вещь с отзывами и бронирование с вещью и автором.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"0", "10", "100"})
+    private int commentCount;
+
+    private ItemMapper itemMapper;
+    private BookingMapper bookingMapper;
+
+    private Item item;
+    private List<Comment> comments;
+    private Booking booking;
+    private LocalDateTime now;
+
+    @Setup
+    public void setup() {
+        CommentMapper commentMapper = new CommentMapper();
+        itemMapper = new ItemMapper(commentMapper);
+        bookingMapper = new BookingMapper(itemMapper, new UserMapper());
+
+        now = LocalDateTime.now();
+        User owner = new User(1L, "Владелец", "owner@mail.ru", 0L);
+        User author = new User(2L, "Арендатор", "booker@mail.ru", 0L);
+        item = new Item(1L, "Дрель", "Аккумуляторная дрель", true, owner, null, 0L);
+
+        comments = new ArrayList<>();
+        for (long i = 0; i < commentCount; i++) {
+            Comment comment = new Comment();
+            comment.setId(i);
+            comment.setText("Отзыв " + i);
+            comment.setItem(item);
+            comment.setAuthor(author);
+            comment.setCreated(now.minusDays(i));
+            comments.add(comment);
+        }
+
+        booking = new Booking(1L, now.plusDays(1), now.plusDays(2), item, author, BookingStatus.APPROVED, 0L);
+    }
+
+    @Benchmark
+    public ItemDtoOutput itemToItemDtoOutput() {
+        return itemMapper.toItemDtoOutput(item, comments, now.minusDays(1), now.plusDays(1));
+    }
+
+    @Benchmark
+    public BookingDto bookingToDto() {
+        return bookingMapper.toDto(booking);
+    }
+}
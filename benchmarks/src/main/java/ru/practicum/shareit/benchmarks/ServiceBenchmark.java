@@ -0,0 +1,169 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoOutput;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Сервисы целиком — транзакция, запросы Hibernate и маппинг — на встроенной H2,
+ * заполненной данными объёмом, близким к рабочему.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ServiceBenchmark {
+
+    private static final int USERS = 2_000;
+    private static final int ITEMS_PER_USER = 5;
+    private static final int BOOKINGS_PER_ITEM = 10;
+    private static final int COMMENTS_PER_ITEM = 2;
+    private static final int BATCH_SIZE = 1_000;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private BookingService bookingService;
+    private ItemRequestService itemRequestService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                // Аргументами командной строки, чтобы перекрыть отладочный вывод и обновление схемы
+                // из настроек профиля test
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmarks",
+                        "--spring.jpa.generate-ddl=false",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--logging.level.root=WARN",
+                        "--logging.level.ru.practicum=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        seed(context.getBean(JdbcTemplate.class));
+        seedBookingSummaries(context.getBean(ItemBookingSummaryService.class));
+
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+        itemRequestService = context.getBean(ItemRequestService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDtoOutput> getItemsByOwner() {
+        return itemService.getItemsByOwner(randomUserId());
+    }
+
+    @Benchmark
+    public ItemDtoOutput getItemById() {
+        long itemId = ThreadLocalRandom.current().nextLong(1, USERS * ITEMS_PER_USER + 1);
+        return itemService.getItemById((itemId - 1) / ITEMS_PER_USER + 1, itemId);
+    }
+
+    @Benchmark
+    public List<BookingDto> getUserBookings() {
+        return bookingService.getUserBookings(randomUserId(), "ALL", null, 10);
+    }
+
+    @Benchmark
+    public List<BookingDto> getOwnerBookings() {
+        return bookingService.getOwnerBookings(randomUserId(), "PAST", null, 10);
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> getAllRequests() {
+        return itemRequestService.getAllRequests(randomUserId(), null, 0, 20);
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItems() {
+        return itemService.searchItems("дрель " + ThreadLocalRandom.current().nextInt(100), 0, 10);
+    }
+
+    private static long randomUserId() {
+        return ThreadLocalRandom.current().nextLong(1, USERS + 1);
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> requests = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        BookingStatus[] statuses = BookingStatus.values();
+
+        long itemId = 0;
+        for (long userId = 1; userId <= USERS; userId++) {
+            users.add(new Object[]{userId, "Пользователь " + userId, "user" + userId + "@mail.ru"});
+            requests.add(new Object[]{userId, "Нужна дрель " + userId, userId, now.minusHours(userId)});
+            for (int i = 0; i < ITEMS_PER_USER; i++) {
+                itemId++;
+                Long requestId = i == 0 && userId > 1 ? userId - 1 : null;
+                items.add(new Object[]{itemId, "Дрель " + itemId, "Ударная дрель, модель " + itemId,
+                        i % 4 != 0, userId, requestId});
+                for (int b = 0; b < BOOKINGS_PER_ITEM; b++) {
+                    long bookerId = (userId + b) % USERS + 1;
+                    LocalDateTime start = now.plusDays((b - BOOKINGS_PER_ITEM / 2) * 3L);
+                    bookings.add(new Object[]{start, start.plusDays(2), itemId, bookerId,
+                            statuses[b % statuses.length].name()});
+                }
+                for (int c = 0; c < COMMENTS_PER_ITEM; c++) {
+                    comments.add(new Object[]{"Отзыв " + c, itemId, (userId + c) % USERS + 1,
+                            now.minusDays(c + 1)});
+                }
+            }
+        }
+
+        batchInsert(jdbcTemplate, "INSERT INTO users (id, name, email) VALUES (?, ?, ?)", users);
+        batchInsert(jdbcTemplate, "INSERT INTO requests (id, description, requester_id, created) " +
+                "VALUES (?, ?, ?, ?)", requests);
+        batchInsert(jdbcTemplate, "INSERT INTO items (id, name, description, is_available, owner_id, request_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", items);
+        batchInsert(jdbcTemplate, "INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+                "VALUES (?, ?, ?, ?, ?)", bookings);
+        batchInsert(jdbcTemplate, "INSERT INTO comments (text, item_id, author_id, created) VALUES (?, ?, ?, ?)",
+                comments);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    // Бронирования вставлены в обход сервиса, поэтому сводки по вещам строятся отдельно
+    private static void seedBookingSummaries(ItemBookingSummaryService summaryService) {
+        List<Long> itemIds = LongStream.rangeClosed(1, (long) USERS * ITEMS_PER_USER).boxed().toList();
+        for (int from = 0; from < itemIds.size(); from += BATCH_SIZE) {
+            summaryService.refresh(itemIds.subList(from, Math.min(from + BATCH_SIZE, itemIds.size())));
+        }
+    }
+
+    private static void batchInsert(JdbcTemplate jdbcTemplate, String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+    }
+}
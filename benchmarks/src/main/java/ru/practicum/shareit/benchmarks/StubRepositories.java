@@ -0,0 +1,27 @@
+package ru.practicum.shareit.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Заглушки репозиториев без базы данных: методы из карты возвращают подготовленные данные,
+ * вызов любого другого метода считается ошибкой бенчмарка.
+ */
+final class StubRepositories {
+
+    private StubRepositories() {
+    }
+
+    static <T> T stub(Class<T> repositoryType, Map<String, Function<Object[], Object>> answers) {
+        Object proxy = Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+                (instance, method, arguments) -> {
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer == null) {
+                        throw new UnsupportedOperationException("Метод не подготовлен для бенчмарка: " + method);
+                    }
+                    return answer.apply(arguments);
+                });
+        return repositoryType.cast(proxy);
+    }
+}
@@ -2,52 +2,76 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.booking.dto.BookingApprovalDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerResponseCache;
+import ru.practicum.shareit.client.ServerTransport;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-
-
-        );
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, ServerTransport transport,
+                         ServerResponseCache responseCache) {
+        super(serverUrl + API_PREFIX, transport, responseCache);
     }
 
-    public ResponseEntity<Object> createBooking(Long userId, BookingDtoInput dto) {
+    public CompletableFuture<ResponseEntity<Object>> createBooking(Long userId, BookingDtoInput dto) {
         return post("", userId, dto);
     }
 
-    public ResponseEntity<Object> approveBooking(Long userId, Long bookingId, boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> approveBooking(Long userId, Long bookingId, boolean approved) {
         String path = "/" + bookingId + "?approved=" + approved;
         System.out.println("BookingClient.approveBooking called with userId=" + userId + ", path=" + path);
         return patch(path, userId, null, null);
     }
 
-    public ResponseEntity<Object> getBooking(Long userId, Long bookingId) {
+    public CompletableFuture<ResponseEntity<Object>> approveBookings(Long userId, BookingApprovalDtoInput dto, boolean approved) {
+        return patch("?approved={approved}", userId, Map.<String, Object>of("approved", approved), dto);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getBooking(Long userId, Long bookingId) {
         String path = "/" + bookingId;
         return get(path, userId);
     }
 
-    public ResponseEntity<Object> getUserBookings(Long userId, String state) {
-        String path = "?state=" + state;
-        return get(path, userId);
+    public CompletableFuture<ResponseEntity<Object>> getUserBookings(Long userId, String state, @Nullable String cursor,
+                                                                     @Nullable Integer size) {
+        return get(pageQuery("", cursor, size), userId, pageParameters(state, cursor, size));
     }
 
-    public ResponseEntity<Object> getOwnerBookings(Long userId, String state) {
-        String path = "/owner?state=" + state;
-        return get(path, userId);
+    public CompletableFuture<ResponseEntity<Object>> getOwnerBookings(Long userId, String state, @Nullable String cursor,
+                                                                      @Nullable Integer size) {
+        return get(pageQuery("/owner", cursor, size), userId, pageParameters(state, cursor, size));
+    }
+
+    // Без size сервер отдаёт список целиком
+    private static String pageQuery(String path, @Nullable String cursor, @Nullable Integer size) {
+        String query = path + "?state={state}";
+        if (size != null) {
+            query += "&size={size}";
+        }
+        return cursor == null ? query : query + "&cursor={cursor}";
+    }
+
+    private static Map<String, Object> pageParameters(String state, @Nullable String cursor, @Nullable Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state);
+        if (size != null) {
+            parameters.put("size", size);
+        }
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
     }
-}
\ No newline at end of file
+}
@@ -1,48 +1,64 @@
 package ru.practicum.shareit.booking.controller;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.dto.BookingApprovalDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/bookings")
 @RequiredArgsConstructor
+@Validated
 public class BookingController {
 
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                @RequestBody BookingDtoInput dto) {
+    public CompletableFuture<ResponseEntity<Object>> createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                   @RequestBody @Valid BookingDtoInput dto) {
         return bookingClient.createBooking(userId, dto);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approveBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                 @PathVariable Long bookingId,
-                                                 @RequestParam boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> approveBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                    @PathVariable Long bookingId,
+                                                                    @RequestParam boolean approved) {
         return bookingClient.approveBooking(userId, bookingId, approved);
     }
 
+    @PatchMapping
+    public CompletableFuture<ResponseEntity<Object>> approveBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                     @RequestParam boolean approved,
+                                                                     @RequestBody @Valid BookingApprovalDtoInput dto) {
+        return bookingClient.approveBookings(userId, dto, approved);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @PathVariable Long bookingId) {
+    public CompletableFuture<ResponseEntity<Object>> getBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                @PathVariable Long bookingId) {
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                  @RequestParam(defaultValue = "ALL") String state) {
-        return bookingClient.getUserBookings(userId, state);
+    public CompletableFuture<ResponseEntity<Object>> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                     @RequestParam(defaultValue = "ALL") String state,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) @Positive Integer size) {
+        return bookingClient.getUserBookings(userId, state, cursor, size);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long ownerId,
-                                                   @RequestParam(defaultValue = "ALL") String state) {
-        return bookingClient.getOwnerBookings(ownerId, state);
+    public CompletableFuture<ResponseEntity<Object>> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                                                      @RequestParam(defaultValue = "ALL") String state,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(required = false) @Positive Integer size) {
+        return bookingClient.getOwnerBookings(ownerId, state, cursor, size);
     }
 }
-
-
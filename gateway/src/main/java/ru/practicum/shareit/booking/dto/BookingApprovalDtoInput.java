@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BookingApprovalDtoInput {
+
+    @NotEmpty(message = "Список бронирований не может быть пустым")
+    @Size(max = 100, message = "За один запрос можно рассмотреть не больше 100 бронирований")
+    private List<@NotNull(message = "Идентификатор бронирования не может быть пустым") Long> bookingIds;
+}
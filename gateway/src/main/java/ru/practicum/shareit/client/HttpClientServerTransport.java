@@ -0,0 +1,95 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Неблокирующая передача через java.net.http.HttpClient. Поток обработки запроса освобождается,
+ * пока сервер готовит ответ, а тело ответа не разбирается: байты сервера копируются клиенту шлюза
+ * потоком вместе со статусом и заголовками.
+ * <p>
+ * Клиент закрывается вместе с контекстом: Spring вызывает close() у AutoCloseable-бинов, и пул соединений
+ * и потоки селектора HttpClient не переживают остановку шлюза.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit-server.transport", havingValue = "async")
+public class HttpClientServerTransport implements ServerTransport, AutoCloseable {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final ServerClientProperties properties;
+
+    public HttpClientServerTransport(ServerClientProperties properties, ObjectMapper objectMapper) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getConnectTimeout())
+                .build();
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+                                                              @Nullable Object body) {
+        AtomicReference<Throwable> bodyFailure = new AtomicReference<>();
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(properties.getReadTimeout())
+                .method(method.name(), toBodyPublisher(body, bodyFailure));
+        headers.forEach((name, values) -> values.forEach(value -> request.header(name, value)));
+
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofInputStream())
+                .handle((response, error) -> {
+                    if (error == null) {
+                        return toGatewayResponse(response);
+                    }
+                    // Ошибка записи потокового тела (например, некорректная запись импорта) важнее обрыва запроса
+                    Throwable cause = bodyFailure.get() != null ? bodyFailure.get() : error;
+                    throw cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+                });
+    }
+
+    // Ждёт завершения начатых обменов; новые после закрытия не принимаются
+    @Override
+    public void close() {
+        httpClient.close();
+    }
+
+    private HttpRequest.BodyPublisher toBodyPublisher(@Nullable Object body, AtomicReference<Throwable> bodyFailure) {
+        if (body == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        if (body instanceof StreamingHttpOutputMessage.Body streamingBody) {
+            return StreamingRequestBodies.publisher(streamingBody, bodyFailure);
+        }
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Не удалось сериализовать тело запроса к серверу", e);
+        }
+    }
+
+    private static ResponseEntity<Object> toGatewayResponse(HttpResponse<InputStream> response) {
+        return ResponseEntity.status(response.statusCode())
+                .headers(ProxyHeaders.endToEnd(response.headers().map()))
+                .body(new InputStreamResource(response.body()));
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Блокирующая передача через RestTemplate: ответ сервера разбирается в Object и сериализуется шлюзом заново.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit-server.transport", havingValue = "blocking", matchIfMissing = true)
+public class RestTemplateServerTransport implements ServerTransport {
+
+    private final RestTemplate rest;
+
+    public RestTemplateServerTransport(RestTemplateBuilder builder) {
+        this.rest = builder.build();
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+                                                              @Nullable Object body) {
+        ResponseEntity<Object> shareitServerResponse;
+        try {
+            if (body instanceof StreamingHttpOutputMessage.Body streamingBody) {
+                // Потоковое тело пишется прямо в соединение, минуя конвертеры сообщений
+                shareitServerResponse = rest.execute(uri, method, request -> {
+                    request.getHeaders().putAll(headers);
+                    StreamingRequestBodies.write(request, streamingBody);
+                }, rest.responseEntityExtractor(Object.class));
+            } else {
+                shareitServerResponse = rest.exchange(uri, method, new HttpEntity<>(body, headers), Object.class);
+            }
+        } catch (HttpStatusCodeException e) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray()));
+        }
+        return CompletableFuture.completedFuture(prepareGatewayResponse(shareitServerResponse));
+    }
+
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
+        if (response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
+
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+
+        if (response.hasBody()) {
+            return responseBuilder.body(response.getBody());
+        }
+
+        return responseBuilder.build();
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки общего пула HTTP-соединений шлюза с сервером.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class ServerClientProperties {
+
+    // Всего соединений в пуле
+    private int maxConnections = 200;
+
+    // Соединений к одному хосту; все клиенты шлюза ходят на один сервер, поэтому лимит близок к общему
+    private int maxConnectionsPerRoute = 200;
+
+    // Установка TCP-соединения
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    // Ожидание ответа сервера
+    private Duration readTimeout = Duration.ofSeconds(10);
+
+    // Ожидание свободного соединения в пуле
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+
+    // Неиспользуемые соединения закрываются после этого времени
+    private Duration idleTimeout = Duration.ofSeconds(30);
+
+    // Максимальное время жизни соединения (keep-alive)
+    private Duration connectionTimeToLive = Duration.ofMinutes(5);
+}
@@ -0,0 +1,205 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Кэш успешных ответов сервера на чтение по пути, параметрам запроса и X-Sharer-User-Id.
+ * Выключен по умолчанию и включается свойством shareit-server.cache.enabled.
+ * <p>
+ * Ответ отдаётся без обращения к серверу, пока с начала его чтения не прошло time-to-live и с тех пор
+ * через шлюз не было записи, которая его касается. Иначе ответ перепроверяется условным запросом
+ * с If-None-Match, и на 304 сервер тело не передаёт.
+ * <p>
+ * Запись ничего не удаляет из кэша, а отмечает момент изменения: для своего пути (PATCH /items/5 — ответы
+ * /items/5) и для видов ответов, которые показывают её данные, но идентификаторы которых шлюзу неизвестны
+ * (подтверждение бронирования — все /items/{id}). Ответ, чтение которого началось раньше отметки,
+ * считается устаревшим. Поэтому запись не мешает сохранять чтения других ресурсов, а перепроверка
+ * возвращает уже прочитанное тело по 304.
+ * <p>
+ * Тело ответа, переданное потоком, читается в память, чтобы его можно было отдать повторно.
+ */
+@Component
+public class ServerResponseCache implements MeterBinder {
+
+    static final String USER_HEADER = "X-Sharer-User-Id";
+
+    // Виды кэшируемых ответов, которые меняются записями по другим путям
+    private static final String ITEM = "items/{id}";
+    private static final String SEARCH = "items/search";
+    private static final String REQUEST = "requests/{id}";
+
+    private final String serverPath;
+    private final boolean enabled;
+    private final Duration timeToLive;
+    private final Cache<Key, Entry> cache;
+    // Моменты записей по путям ресурсов; отметка старше time-to-live не нужна: ответ к тому времени устарел сам
+    private final Cache<String, Long> pathWrites;
+    // Моменты записей, затронувших все ответы одного вида
+    private final Map<String, Long> kindWrites = new ConcurrentHashMap<>();
+
+    public ServerResponseCache(@Value("${shareit-server.url}") String serverUrl, ServerResponseCacheProperties properties) {
+        this.serverPath = URI.create(serverUrl).getPath();
+        this.enabled = properties.isEnabled();
+        this.timeToLive = properties.getTimeToLive();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .recordStats()
+                .build();
+        this.pathWrites = Caffeine.newBuilder()
+                .expireAfterWrite(timeToLive)
+                .maximumSize(properties.getMaxSize())
+                .build();
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> get(URI uri, HttpHeaders headers,
+                                                         Function<HttpHeaders, CompletableFuture<ResponseEntity<Object>>> exchange) {
+        if (!enabled) {
+            return exchange.apply(headers);
+        }
+        String path = relativePath(uri);
+        Key key = new Key(path, uri.getRawQuery(), headers.getFirst(USER_HEADER));
+        Entry cached = cache.getIfPresent(key);
+        long readStart = System.nanoTime();
+        if (cached != null && isFresh(path, cached, readStart)) {
+            return CompletableFuture.completedFuture(cached.response);
+        }
+
+        HttpHeaders requestHeaders = headers;
+        if (cached != null && cached.etag != null) {
+            requestHeaders = new HttpHeaders();
+            requestHeaders.putAll(headers);
+            requestHeaders.setIfNoneMatch(cached.etag);
+        }
+        return exchange.apply(requestHeaders).thenApply(response -> {
+            if (cached != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                store(key, new Entry(cached.response, cached.etag, readStart));
+                return cached.response;
+            }
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                return response;
+            }
+            ResponseEntity<Object> buffered = buffer(response, uri);
+            store(key, new Entry(buffered, buffered.getHeaders().getETag(), readStart));
+            return buffered;
+        });
+    }
+
+    public void invalidate(HttpMethod method, URI uri) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        String[] segments = segments(relativePath(uri));
+        String resource = segments.length > 0 ? segments[0] : "";
+        boolean byId = segments.length > 1 && isId(segments[1]);
+        if (byId) {
+            pathWrites.put("/" + resource + "/" + segments[1], now);
+        }
+        affectedKinds(method, resource, byId, segments.length > 2)
+                .forEach(kind -> kindWrites.merge(kind, now, Math::max));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "shareit-server-responses");
+    }
+
+    // Виды ответов, которые показывают данные записи, кроме ответов по её собственному пути
+    private static Set<String> affectedKinds(HttpMethod method, String resource, boolean byId, boolean subresource) {
+        return switch (resource) {
+            // Имя владельца видно в вещах и запросах, удаление пользователя удаляет его вещи
+            case "users" -> byId ? Set.of(ITEM, SEARCH, REQUEST) : Set.of();
+            // Новая или изменённая вещь видна в поиске и в ответах на запросы; отзыв — только в самой вещи
+            case "items" -> subresource ? Set.of() : Set.of(SEARCH, REQUEST);
+            // Рассмотрение бронирования меняет последнее и ближайшее бронирование вещи; новое ещё не подтверждено
+            case "bookings" -> method == HttpMethod.POST ? Set.of() : Set.of(ITEM);
+            default -> Set.of();
+        };
+    }
+
+    private boolean isFresh(String path, Entry entry, long now) {
+        if (now - entry.readStart >= timeToLive.toNanos()) {
+            return false;
+        }
+        Long pathWrite = pathWrites.getIfPresent(resourcePath(path));
+        Long kindWrite = kindWrites.get(kind(path));
+        return (pathWrite == null || entry.readStart > pathWrite) && (kindWrite == null || entry.readStart > kindWrite);
+    }
+
+    // Из двух одновременных чтений остаётся начатое позже
+    private void store(Key key, Entry entry) {
+        cache.asMap().merge(key, entry, (previous, next) -> next.readStart >= previous.readStart ? next : previous);
+    }
+
+    // Поток тела ответа читается один раз, поэтому в кэш попадают его байты
+    private static ResponseEntity<Object> buffer(ResponseEntity<Object> response, URI uri) {
+        if (!(response.getBody() instanceof Resource resource)) {
+            return response;
+        }
+        try (InputStream body = resource.getInputStream()) {
+            return ResponseEntity.status(response.getStatusCode())
+                    .headers(response.getHeaders())
+                    .body(body.readAllBytes());
+        } catch (IOException e) {
+            throw new ResourceAccessException("Ошибка чтения ответа сервера GET " + uri + ": " + e.getMessage(), e);
+        }
+    }
+
+    private String relativePath(URI uri) {
+        String path = uri.getPath();
+        return path.startsWith(serverPath) ? path.substring(serverPath.length()) : path;
+    }
+
+    // /items/5/comment -> /items/5
+    private static String resourcePath(String path) {
+        String[] segments = segments(path);
+        return segments.length > 1 ? "/" + segments[0] + "/" + segments[1] : path;
+    }
+
+    // /items/5 -> items/{id}, /items/search -> items/search
+    private static String kind(String path) {
+        String[] segments = segments(path);
+        if (segments.length < 2) {
+            return path;
+        }
+        return segments[0] + "/" + (isId(segments[1]) ? "{id}" : segments[1]);
+    }
+
+    private static String[] segments(String path) {
+        String trimmed = path.startsWith("/") ? path.substring(1) : path;
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/");
+    }
+
+    private static boolean isId(String segment) {
+        return !segment.isEmpty() && segment.chars().allMatch(Character::isDigit);
+    }
+
+    private record Key(String path, @Nullable String query, @Nullable String userId) {
+    }
+
+    private record Entry(ResponseEntity<Object> response, @Nullable String etag, long readStart) {
+    }
+}
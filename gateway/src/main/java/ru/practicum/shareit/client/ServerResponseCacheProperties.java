@@ -0,0 +1,27 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки кэша ответов сервера на чтение отдельных вещей, пользователей, запросов и поиска.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.cache")
+public class ServerResponseCacheProperties {
+
+    // При выключенном кэше каждое чтение уходит на сервер. Включать только для одного экземпляра шлюза:
+    // записи через другие экземпляры этот кэш не видит и отдаёт старые ответы до конца time-to-live
+    private boolean enabled = false;
+
+    // Ответов в кэше; при переполнении вытесняются давно не читавшиеся
+    private long maxSize = 10_000;
+
+    // Сколько ответ отдаётся без обращения к серверу; после этого он перепроверяется по ETag.
+    // Изменения в обход этого шлюза (другой экземпляр, бронирования других пользователей) видны не позже этого срока
+    private Duration timeToLive = Duration.ofSeconds(10);
+}
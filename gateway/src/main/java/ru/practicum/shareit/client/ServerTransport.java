@@ -0,0 +1,21 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Передача запроса шлюза на сервер. Реализация выбирается свойством shareit-server.transport.
+ * Ответ сервера, в том числе с кодом ошибки, возвращается клиенту шлюза со статусом сервера.
+ * Тело запроса — объект, который сериализуется в JSON, или StreamingHttpOutputMessage.Body,
+ * который пишется в соединение потоком; исключение такого тела прерывает запрос и возвращается вызывающему.
+ */
+public interface ServerTransport {
+
+    CompletableFuture<ResponseEntity<Object>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+                                                       @Nullable Object body);
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Тела запросов к серверу, которые пишутся в соединение по мере формирования (chunked), а не собираются
+ * в памяти целиком. Клиент передаёт транспорту StreamingHttpOutputMessage.Body вместо объекта.
+ */
+final class StreamingRequestBodies {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private StreamingRequestBodies() {
+    }
+
+    static void write(ClientHttpRequest request, StreamingHttpOutputMessage.Body body) throws IOException {
+        if (request instanceof StreamingHttpOutputMessage streaming) {
+            streaming.setBody(body);
+        } else {
+            body.writeTo(request.getBody());
+        }
+    }
+
+    /**
+     * Тело для java.net.http.HttpClient. Запись идёт в отдельном виртуальном потоке и ждёт, пока клиент
+     * заберёт уже записанные части; исключение записи сохраняется в failure и прерывает запрос.
+     */
+    static HttpRequest.BodyPublisher publisher(StreamingHttpOutputMessage.Body body, AtomicReference<Throwable> failure) {
+        return HttpRequest.BodyPublishers.fromPublisher(subscriber -> {
+            SubmissionPublisher<ByteBuffer> chunks = new SubmissionPublisher<>();
+            chunks.subscribe(subscriber);
+            Thread.ofVirtual().name("server-request-body").start(() -> {
+                try (OutputStream out = new BufferedOutputStream(new ChunkOutputStream(chunks), CHUNK_SIZE)) {
+                    body.writeTo(out);
+                } catch (Throwable e) {
+                    failure.set(e);
+                    chunks.closeExceptionally(e);
+                    return;
+                }
+                chunks.close();
+            });
+        });
+    }
+
+    // submit ждёт, если буфер издателя заполнен, поэтому запись не опережает отправку
+    private static final class ChunkOutputStream extends OutputStream {
+
+        private final SubmissionPublisher<ByteBuffer> chunks;
+
+        private ChunkOutputStream(SubmissionPublisher<ByteBuffer> chunks) {
+            this.chunks = chunks;
+        }
+
+        @Override
+        public void write(int b) {
+            chunks.submit(ByteBuffer.wrap(new byte[]{(byte) b}));
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (len > 0) {
+                chunks.submit(ByteBuffer.wrap(Arrays.copyOfRange(b, off, off + len)));
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Блокирующая передача без разбора ответа: байты, статус и тип содержимого ответа сервера отдаются
+ * клиенту шлюза как есть. Тело копируется потоком через буфер фиксированного размера
+ * (ResourceHttpMessageConverter), после копирования соединение возвращается в общий пул.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit-server.transport", havingValue = "pass-through")
+public class StreamingServerTransport implements ServerTransport {
+
+    private final ClientHttpRequestFactory requestFactory;
+    private final ObjectMapper objectMapper;
+
+    public StreamingServerTransport(ClientHttpRequestFactory serverRequestFactory, ObjectMapper objectMapper) {
+        this.requestFactory = serverRequestFactory;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+                                                              @Nullable Object body) {
+        ClientHttpResponse response = null;
+        try {
+            ClientHttpRequest request = requestFactory.createRequest(uri, method);
+            request.getHeaders().putAll(headers);
+            if (body instanceof StreamingHttpOutputMessage.Body streamingBody) {
+                StreamingRequestBodies.write(request, streamingBody);
+            } else if (body != null) {
+                objectMapper.writeValue(request.getBody(), body);
+            }
+            // Если тело запроса не дописано (ошибка чтения импорта, обрыв клиента шлюза), execute бросает исключение,
+            // и HttpClient сам закрывает соединение, не возвращая его в пул полуотправленным
+            response = request.execute();
+
+            ResponseEntity<Object> entity = ResponseEntity.status(response.getStatusCode())
+                    .headers(ProxyHeaders.endToEnd(response.getHeaders()))
+                    .body(new InputStreamResource(new ResponseBodyStream(response)));
+            // Дальше соединение освобождает закрытие тела ответа
+            response = null;
+            return CompletableFuture.completedFuture(entity);
+        } catch (IOException e) {
+            throw new ResourceAccessException("Ошибка запроса к серверу " + method + " " + uri + ": " + e.getMessage(), e);
+        } finally {
+            if (response != null) {
+                response.close();
+            }
+        }
+    }
+
+    // Закрытие тела освобождает соединение сервера
+    private static final class ResponseBodyStream extends FilterInputStream {
+
+        private final ClientHttpResponse response;
+
+        private ResponseBodyStream(ClientHttpResponse response) throws IOException {
+            super(response.getBody());
+            this.response = response;
+        }
+
+        @Override
+        public void close() {
+            response.close();
+        }
+    }
+}
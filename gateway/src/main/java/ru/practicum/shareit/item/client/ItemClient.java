@@ -1,55 +1,135 @@
 package ru.practicum.shareit.item.client;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerResponseCache;
+import ru.practicum.shareit.client.ServerTransport;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
 
     private static final String API_PREFIX = "/items";
 
+    static final int MAX_IMPORT_SIZE = 100_000;
+
+    private final ObjectMapper objectMapper;
+
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, ServerTransport transport,
+                      ServerResponseCache responseCache, ObjectMapper objectMapper) {
+        super(serverUrl + API_PREFIX, transport, responseCache);
+        this.objectMapper = objectMapper;
     }
 
-    public ResponseEntity<Object> addItem(Long userId, ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> addItem(Long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> updateItem(Long userId, Long itemId, ItemDto itemDto) {
+    /**
+     * Записи импорта (NDJSON или JSON-массив) разбираются по одной и сразу пишутся в тело запроса к серверу
+     * JSON-массивом, поэтому в памяти шлюза одновременно находится одна запись. Поля записей проверяет сервер:
+     * неверные записи пропускаются, а не отменяют импорт целиком. Синтаксическая ошибка или превышение
+     * MAX_IMPORT_SIZE обрывает тело на середине, и сервер откатывает весь импорт.
+     */
+    public CompletableFuture<ResponseEntity<Object>> importItems(Long userId, InputStream body) {
+        return post("/import", userId, (StreamingHttpOutputMessage.Body) out -> writeImport(body, out));
+    }
+
+    private void writeImport(InputStream body, OutputStream out) throws IOException {
+        int count = 0;
+        try (MappingIterator<ItemDto> records = objectMapper.readerFor(ItemDto.class).readValues(body);
+             JsonGenerator generator = objectMapper.createGenerator(out)
+                     // При ошибке массив не дописывается: незакрытое тело сервер отвергает целиком
+                     .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)
+                     .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            generator.writeStartArray();
+            while (nextRecord(records, count)) {
+                if (count == MAX_IMPORT_SIZE) {
+                    throw new ValidationException("За один импорт можно добавить не больше " + MAX_IMPORT_SIZE + " вещей");
+                }
+                generator.writeObject(readRecord(records, count));
+                count++;
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private static boolean nextRecord(MappingIterator<ItemDto> records, int count) {
+        try {
+            return records.hasNextValue();
+        } catch (IOException e) {
+            throw invalidRecord(count, e);
+        }
+    }
+
+    private static ItemDto readRecord(MappingIterator<ItemDto> records, int count) {
+        try {
+            return records.nextValue();
+        } catch (IOException e) {
+            throw invalidRecord(count, e);
+        }
+    }
+
+    private static ValidationException invalidRecord(int count, IOException e) {
+        return new ValidationException("Некорректная запись импорта №" + (count + 1) + ": " + e.getMessage());
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> updateItem(Long userId, Long itemId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItemById(Long userId, Long itemId) {
-        return get("/" + itemId, userId);
+    public CompletableFuture<ResponseEntity<Object>> getItemById(Long userId, Long itemId) {
+        return getCached("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getItemsByOwner(Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getItemsByOwner(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> searchItems(String text) {
-        Map<String, Object> params = Map.of("text", text);
-        return get("/search?text={text}", null, params);
+    // Без size сервер возвращает все совпадения начиная с from
+    public CompletableFuture<ResponseEntity<Object>> searchItems(String text, Integer from, @Nullable Integer size) {
+        if (size == null) {
+            return getCached("/search?text={text}&from={from}", null, Map.of("text", text, "from", from));
+        }
+        Map<String, Object> params = Map.of("text", text, "from", from, "size", size);
+        return getCached("/search?text={text}&from={from}&size={size}", null, params);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getAvailability(Long itemId, @Nullable LocalDateTime from,
+                                                                     @Nullable LocalDateTime to) {
+        StringBuilder path = new StringBuilder("/" + itemId + "/availability");
+        Map<String, Object> params = new HashMap<>();
+        if (from != null) {
+            params.put("from", from);
+            path.append("?from={from}");
+        }
+        if (to != null) {
+            params.put("to", to);
+            path.append(from != null ? "&" : "?").append("to={to}");
+        }
+        return get(path.toString(), null, params);
     }
 
-    public ResponseEntity<Object> addComment(Long userId, Long itemId, CommentDto commentDto) {
+    public CompletableFuture<ResponseEntity<Object>> addComment(Long userId, Long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 }
@@ -2,15 +2,17 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerResponseCache;
+import ru.practicum.shareit.client.ServerTransport;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemRequestClient extends BaseClient {
@@ -18,34 +20,38 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, ServerTransport transport,
+                             ServerResponseCache responseCache) {
+        super(serverUrl + API_PREFIX, transport, responseCache);
     }
 
 
-    public ResponseEntity<Object> createRequest(Long userId, ItemRequestDto requestDto) {
+    public CompletableFuture<ResponseEntity<Object>> createRequest(Long userId, ItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
 
-    public ResponseEntity<Object> getOwnRequests(Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getOwnRequests(Long userId) {
         return get("", userId);
     }
 
 
-    public ResponseEntity<Object> getAllRequests(Long userId, Integer from, Integer size) {
-        Map<String, Object> params = Map.of("from", from, "size", size);
-        return get("/all?from={from}&size={size}", userId, params);
+    // from — смещение для клиентов без курсора; сервер отклоняет их вместе
+    public CompletableFuture<ResponseEntity<Object>> getAllRequests(Long userId, @Nullable String cursor, Integer from,
+                                                                    Integer size) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("from", from);
+        params.put("size", size);
+        if (cursor == null) {
+            return get("/all?from={from}&size={size}", userId, params);
+        }
+        params.put("cursor", cursor);
+        return get("/all?from={from}&size={size}&cursor={cursor}", userId, params);
     }
 
 
-    public ResponseEntity<Object> getRequestById(Long userId, Long requestId) {
-        return get("/" + requestId, userId);
+    public CompletableFuture<ResponseEntity<Object>> getRequestById(Long userId, Long requestId) {
+        return getCached("/" + requestId, userId);
     }
 }
 
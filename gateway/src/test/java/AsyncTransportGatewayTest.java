@@ -0,0 +1,109 @@
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.ShareItGateway;
+import ru.practicum.shareit.client.HttpClientServerTransport;
+import ru.practicum.shareit.client.ServerTransport;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@SpringBootTest(classes = ShareItGateway.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit-server.transport=async")
+class AsyncTransportGatewayTest {
+
+    private static final String BOOKINGS = "[{\"id\":2,\"status\":\"WAITING\"},{\"id\":1,\"status\":\"APPROVED\"}]";
+
+    private static final HttpServer SERVER = startServer();
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ServerTransport transport;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.stop(0);
+    }
+
+    @Test
+    void ownerBookings_shouldBeProxiedByteForByte() {
+        ResponseEntity<String> response = restTemplate.exchange("/bookings/owner?state=ALL", HttpMethod.GET,
+                new HttpEntity<>(userHeader()), String.class);
+
+        assertInstanceOf(HttpClientServerTransport.class, transport);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("next", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertEquals(BOOKINGS, response.getBody());
+    }
+
+    @Test
+    void serverError_shouldKeepStatusAndBody() {
+        ResponseEntity<String> response = restTemplate.exchange("/bookings/404", HttpMethod.GET,
+                new HttpEntity<>(userHeader()), String.class);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("{\"error\":\"Бронирование не найдено\"}", response.getBody());
+    }
+
+    @Test
+    void invalidBooking_shouldBeRejectedByGateway() {
+        HttpHeaders headers = userHeader();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        ResponseEntity<String> response = restTemplate.exchange("/bookings", HttpMethod.POST,
+                new HttpEntity<>("{\"itemId\":1}", headers), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    private static HttpHeaders userHeader() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", "1");
+        return headers;
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/bookings", exchange -> {
+                boolean missing = exchange.getRequestURI().getPath().endsWith("/404");
+                byte[] body = (missing ? "{\"error\":\"Бронирование не найдено\"}" : BOOKINGS)
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.getResponseHeaders().add("X-Next-Cursor", "next");
+                exchange.sendResponseHeaders(missing ? 404 : 200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -6,14 +6,21 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import ru.practicum.shareit.ShareItGateway;
 import ru.practicum.shareit.booking.BookingClient;
 import ru.practicum.shareit.booking.controller.BookingController;
 
+import java.util.concurrent.CompletableFuture;
+
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BookingController.class)
@@ -35,32 +42,57 @@ public class BookingControllerTest {
 
     @Test
     void createBooking_shouldReturnOk() throws Exception {
-        when(bookingClient.createBooking(anyLong(), any())).thenReturn(dummyResponse);
+        when(bookingClient.createBooking(anyLong(), any())).thenReturn(CompletableFuture.completedFuture(dummyResponse));
 
-        mockMvc.perform(post("/bookings")
+        performAsync(post("/bookings")
                         .header("X-Sharer-User-Id", "1")
                         .contentType("application/json")
-                        .content("{\"itemId\":1,\"start\":\"2025-06-06T10:00:00\",\"end\":\"2025-06-07T10:00:00\"}")) // пример JSON, подставь актуальное
+                        .content("{\"itemId\":1,\"start\":\"2099-06-06T10:00:00\",\"end\":\"2099-06-07T10:00:00\"}")) // пример JSON, подставь актуальное
                 .andExpect(status().isOk())
                 .andExpect(content().string("response"));
     }
 
     @Test
     void approveBooking_shouldReturnOk() throws Exception {
-        when(bookingClient.approveBooking(anyLong(), anyLong(), anyBoolean())).thenReturn(dummyResponse);
+        when(bookingClient.approveBooking(anyLong(), anyLong(), anyBoolean())).thenReturn(CompletableFuture.completedFuture(dummyResponse));
 
-        mockMvc.perform(patch("/bookings/5")
+        performAsync(patch("/bookings/5")
                         .header("X-Sharer-User-Id", "1")
                         .param("approved", "true"))
                 .andExpect(status().isOk())
                 .andExpect(content().string("response"));
     }
 
+    @Test
+    void approveBookings_shouldReturnOk() throws Exception {
+        when(bookingClient.approveBookings(anyLong(), any(), eq(true))).thenReturn(CompletableFuture.completedFuture(dummyResponse));
+
+        performAsync(patch("/bookings")
+                        .header("X-Sharer-User-Id", "1")
+                        .param("approved", "true")
+                        .contentType("application/json")
+                        .content("{\"bookingIds\":[1,2,3]}"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("response"));
+    }
+
+    @Test
+    void approveBookings_shouldReturnBadRequest_forEmptyList() throws Exception {
+        mockMvc.perform(patch("/bookings")
+                        .header("X-Sharer-User-Id", "1")
+                        .param("approved", "true")
+                        .contentType("application/json")
+                        .content("{\"bookingIds\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingClient);
+    }
+
     @Test
     void getBooking_shouldReturnOk() throws Exception {
-        when(bookingClient.getBooking(anyLong(), anyLong())).thenReturn(dummyResponse);
+        when(bookingClient.getBooking(anyLong(), anyLong())).thenReturn(CompletableFuture.completedFuture(dummyResponse));
 
-        mockMvc.perform(get("/bookings/5")
+        performAsync(get("/bookings/5")
                         .header("X-Sharer-User-Id", "1"))
                 .andExpect(status().isOk())
                 .andExpect(content().string("response"));
@@ -68,9 +100,9 @@ public class BookingControllerTest {
 
     @Test
     void getUserBookings_shouldReturnOk() throws Exception {
-        when(bookingClient.getUserBookings(anyLong(), anyString())).thenReturn(dummyResponse);
+        when(bookingClient.getUserBookings(anyLong(), anyString(), isNull(), isNull())).thenReturn(CompletableFuture.completedFuture(dummyResponse));
 
-        mockMvc.perform(get("/bookings")
+        performAsync(get("/bookings")
                         .header("X-Sharer-User-Id", "1")
                         .param("state", "ALL"))
                 .andExpect(status().isOk())
@@ -79,12 +111,41 @@ public class BookingControllerTest {
 
     @Test
     void getOwnerBookings_shouldReturnOk() throws Exception {
-        when(bookingClient.getOwnerBookings(anyLong(), anyString())).thenReturn(dummyResponse);
+        when(bookingClient.getOwnerBookings(anyLong(), anyString(), eq("cursor"), eq(5))).thenReturn(CompletableFuture.completedFuture(dummyResponse));
 
-        mockMvc.perform(get("/bookings/owner")
+        performAsync(get("/bookings/owner")
                         .header("X-Sharer-User-Id", "1")
-                        .param("state", "ALL"))
+                        .param("state", "ALL")
+                        .param("cursor", "cursor")
+                        .param("size", "5"))
                 .andExpect(status().isOk())
                 .andExpect(content().string("response"));
     }
+
+    @Test
+    void getUserBookings_shouldReturnBadRequest_forNonPositiveSize() throws Exception {
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", "1")
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createBooking_shouldReturnBadRequest_whenEndBeforeStart() throws Exception {
+        mockMvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", "1")
+                        .contentType("application/json")
+                        .content("{\"itemId\":1,\"start\":\"2099-06-07T10:00:00\",\"end\":\"2099-06-06T10:00:00\"}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingClient);
+    }
+
+    // Контроллеры возвращают CompletableFuture: ответ формируется после асинхронной обработки
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
 }
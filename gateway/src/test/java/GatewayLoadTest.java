@@ -0,0 +1,165 @@
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItGateway;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Нагрузочный тест шлюза: одновременные запросы через шлюз к заглушке сервера с фиксированной задержкой,
+ * на платформенных и на виртуальных потоках. Печатает число потоков JVM и задержки p50/p99.
+ * <p>
+ * Запускается только явно:
+ * {@code mvn -pl gateway test -Dtest=GatewayLoadTest -Dloadtest=true [-Dloadtest.concurrency=5000]}.
+ * Для 5000 соединений нужен лимит открытых файлов не меньше ~20000 (ulimit -n).
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class GatewayLoadTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 5_000);
+    private static final Duration SERVER_DELAY = Duration.ofMillis(200);
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int WARMUP_CONCURRENCY = 200;
+
+    @Test
+    void compareThreadModels() throws Exception {
+        HttpServer server = startStubServer();
+        try {
+            Result platform = run(server, false);
+            Result virtual = run(server, true);
+
+            System.out.printf("%nГейтвей, %d одновременных запросов, задержка сервера %d мс%n",
+                    CONCURRENCY, SERVER_DELAY.toMillis());
+            System.out.println("режим       успешно  потоков(пик)  p50, мс  p99, мс  всего, мс");
+            System.out.println(platform.format("platform"));
+            System.out.println(virtual.format("virtual"));
+
+            // Ошибки при полной нагрузке возможны из-за лимита файловых дескрипторов, поэтому проверяется
+            // главное свойство режима: запросы к серверу больше не держат платформенные потоки
+            assertTrue(virtual.peakThreads() < platform.peakThreads());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private Result run(HttpServer server, boolean virtualThreads) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItGateway.class)
+                .run("--server.port=0",
+                        "--server.tomcat.max-connections=" + (CONCURRENCY + 100),
+                        "--server.tomcat.accept-count=" + CONCURRENCY,
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--shareit-server.url=http://localhost:" + server.getAddress().getPort(),
+                        "--shareit-server.http.max-connections=" + CONCURRENCY,
+                        "--shareit-server.http.max-connections-per-route=" + CONCURRENCY,
+                        "--shareit-server.http.connection-request-timeout=30s",
+                        "--shareit-server.http.read-timeout=30s",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.web.client.RestTemplate=WARN");
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/users/1");
+            // Прогрев: JIT, загрузка классов и первые соединения не должны попадать в замер
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                load(uri, WARMUP_CONCURRENCY);
+            }
+            return load(uri, CONCURRENCY);
+        } finally {
+            context.close();
+        }
+    }
+
+    private Result load(URI uri, int concurrency) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        AtomicInteger succeeded = new AtomicInteger();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(executor)
+                     .build()) {
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+            threads.resetPeakThreadCount();
+            long started = System.nanoTime();
+
+            List<CompletableFuture<Void>> responses = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                long sent = System.nanoTime();
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .thenAccept(response -> {
+                            latencies.add(System.nanoTime() - sent);
+                            if (response.statusCode() == 200) {
+                                succeeded.incrementAndGet();
+                            }
+                        })
+                        .exceptionally(e -> null));
+            }
+            CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+
+            long total = System.nanoTime() - started;
+            List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            return new Result(succeeded.get(), threads.getPeakThreadCount(),
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), total);
+        }
+    }
+
+    private static long percentile(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0));
+    }
+
+    // Заглушка сервера на виртуальных потоках, чтобы её собственные потоки не искажали счётчик
+    private static HttpServer startStubServer() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), CONCURRENCY);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(SERVER_DELAY);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private record Result(int succeeded, int peakThreads, long p50Nanos, long p99Nanos, long totalNanos) {
+
+        String format(String mode) {
+            return String.format("%-10s  %7d  %12d  %7d  %7d  %9d", mode, succeeded, peakThreads,
+                    p50Nanos / 1_000_000, p99Nanos / 1_000_000, totalNanos / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import ru.practicum.shareit.client.HttpClientServerTransport;
+import ru.practicum.shareit.client.ServerClientProperties;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpClientServerTransportTest {
+
+    private HttpServer server;
+    private HttpClientServerTransport transport;
+    private final AtomicReference<String> receivedBody = new AtomicReference<>();
+    private final AtomicReference<String> receivedUserId = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/users", exchange -> {
+            try (InputStream in = exchange.getRequestBody()) {
+                receivedBody.set(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            receivedUserId.set(exchange.getRequestHeaders().getFirst("X-Sharer-User-Id"));
+
+            boolean missing = exchange.getRequestURI().getPath().endsWith("/404");
+            byte[] body = (missing ? "{\"error\":\"Пользователь не найден\"}" : "[{\"id\":1},{\"id\":2}]")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("X-Next-Cursor", "abc");
+            exchange.sendResponseHeaders(missing ? 404 : 200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        transport = new HttpClientServerTransport(new ServerClientProperties(), new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() {
+        transport.close();
+        server.stop(0);
+    }
+
+    @Test
+    void exchange_shouldStreamServerBodyAndHeadersUnchanged() throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Sharer-User-Id", "7");
+        UserDto user = new UserDto();
+        user.setName("John");
+
+        ResponseEntity<Object> response = transport.exchange(HttpMethod.POST, uri("/users"), headers, user).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("abc", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertEquals("[{\"id\":1},{\"id\":2}]", readBody(response));
+        assertEquals("7", receivedUserId.get());
+        assertTrue(receivedBody.get().contains("\"name\":\"John\""));
+    }
+
+    @Test
+    void exchange_shouldPassServerErrorStatusAndBody() throws IOException {
+        ResponseEntity<Object> response = transport.exchange(HttpMethod.GET, uri("/users/404"), new HttpHeaders(), null)
+                .join();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("{\"error\":\"Пользователь не найден\"}", readBody(response));
+        assertEquals("", receivedBody.get());
+    }
+
+    @Test
+    void exchange_shouldWriteStreamingBodyToServer() throws IOException {
+        StreamingHttpOutputMessage.Body body = out -> {
+            for (int i = 0; i < 1000; i++) {
+                out.write(("{\"id\":" + i + "}\n").getBytes(StandardCharsets.UTF_8));
+            }
+        };
+
+        ResponseEntity<Object> response = transport.exchange(HttpMethod.POST, uri("/users"), new HttpHeaders(), body)
+                .join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        readBody(response);
+        assertEquals(1000, receivedBody.get().lines().count());
+        assertTrue(receivedBody.get().endsWith("{\"id\":999}\n"));
+    }
+
+    @Test
+    void exchange_shouldFailWithStreamingBodyError() {
+        StreamingHttpOutputMessage.Body body = out -> {
+            out.write("[{\"id\":1},".getBytes(StandardCharsets.UTF_8));
+            throw new IllegalArgumentException("Некорректная запись");
+        };
+
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> transport.exchange(HttpMethod.POST, uri("/users"), new HttpHeaders(), body).join());
+
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+    }
+
+    @Test
+    void close_shouldStopAcceptingExchanges() {
+        transport.close();
+
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> transport.exchange(HttpMethod.GET, uri("/users"), new HttpHeaders(), null).join());
+        assertInstanceOf(IOException.class, e.getCause());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getAddress().getPort() + path);
+    }
+
+    private static String readBody(ResponseEntity<Object> response) throws IOException {
+        InputStreamResource body = assertInstanceOf(InputStreamResource.class, response.getBody());
+        try (InputStream in = body.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
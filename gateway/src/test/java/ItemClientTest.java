@@ -0,0 +1,77 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import ru.practicum.shareit.client.ServerResponseCache;
+import ru.practicum.shareit.client.ServerResponseCacheProperties;
+import ru.practicum.shareit.client.ServerTransport;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.client.ItemClient;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ItemClientTest {
+
+    private final ServerTransport transport = mock(ServerTransport.class);
+
+    private final ItemClient itemClient = new ItemClient("http://server", transport,
+            new ServerResponseCache("http://server", new ServerResponseCacheProperties()), new ObjectMapper());
+
+    @Test
+    void importItems_shouldStreamNdjsonRecordsAsJsonArray() throws IOException {
+        StreamingHttpOutputMessage.Body body = importBody("""
+                {"name":"Дрель","description":"Ударная","available":true}
+
+                {"name":"Пила","description":"Ручная","available":false,"requestId":5}
+                """);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+
+        assertEquals(List.of(
+                new ItemDto(null, "Дрель", "Ударная", true, null, null),
+                new ItemDto(null, "Пила", "Ручная", false, null, 5L)),
+                List.of(new ObjectMapper().readValue(out.toByteArray(), ItemDto[].class)));
+    }
+
+    @Test
+    void importItems_shouldRejectMalformedRecordWithoutClosingArray() {
+        StreamingHttpOutputMessage.Body body = importBody("""
+                {"name":"Дрель","description":"Ударная","available":true}
+                {"name":"Пила",
+                """);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ValidationException e = assertThrows(ValidationException.class, () -> body.writeTo(out));
+
+        assertTrue(e.getMessage().startsWith("Некорректная запись импорта №2"));
+        // Незакрытый массив сервер не примет, и уже записанные вещи не сохранятся
+        assertFalse(out.toString(StandardCharsets.UTF_8).endsWith("]"));
+    }
+
+    private StreamingHttpOutputMessage.Body importBody(String ndjson) {
+        when(transport.exchange(any(), any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok("imported")));
+
+        itemClient.importItems(1L, new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8))).join();
+
+        ArgumentCaptor<Object> body = ArgumentCaptor.forClass(Object.class);
+        verify(transport).exchange(eq(HttpMethod.POST), eq(URI.create("http://server/items/import")), any(), body.capture());
+        return assertInstanceOf(StreamingHttpOutputMessage.Body.class, body.getValue());
+    }
+}
@@ -11,6 +11,11 @@ import ru.practicum.shareit.item.controller.ItemController;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 
@@ -34,9 +39,9 @@ class ItemControllerTest {
         ItemDto itemDto = new ItemDto();
         ResponseEntity<Object> expectedResponse = ResponseEntity.ok("Added");
 
-        when(itemClient.addItem(eq(userId), eq(itemDto))).thenReturn(expectedResponse);
+        when(itemClient.addItem(eq(userId), eq(itemDto))).thenReturn(CompletableFuture.completedFuture(expectedResponse));
 
-        ResponseEntity<Object> actual = itemController.addItem(userId, itemDto);
+        ResponseEntity<Object> actual = itemController.addItem(userId, itemDto).join();
 
         assertEquals(expectedResponse, actual);
         verify(itemClient, times(1)).addItem(userId, itemDto);
@@ -49,9 +54,9 @@ class ItemControllerTest {
         ItemDto itemDto = new ItemDto();
         ResponseEntity<Object> expectedResponse = ResponseEntity.ok("Updated");
 
-        when(itemClient.updateItem(eq(userId), eq(itemId), eq(itemDto))).thenReturn(expectedResponse);
+        when(itemClient.updateItem(eq(userId), eq(itemId), eq(itemDto))).thenReturn(CompletableFuture.completedFuture(expectedResponse));
 
-        ResponseEntity<Object> actual = itemController.updateItem(userId, itemId, itemDto);
+        ResponseEntity<Object> actual = itemController.updateItem(userId, itemId, itemDto).join();
 
         assertEquals(expectedResponse, actual);
         verify(itemClient, times(1)).updateItem(userId, itemId, itemDto);
@@ -63,9 +68,9 @@ class ItemControllerTest {
         Long itemId = 10L;
         ResponseEntity<Object> expectedResponse = ResponseEntity.ok("Item");
 
-        when(itemClient.getItemById(eq(userId), eq(itemId))).thenReturn(expectedResponse);
+        when(itemClient.getItemById(eq(userId), eq(itemId))).thenReturn(CompletableFuture.completedFuture(expectedResponse));
 
-        ResponseEntity<Object> actual = itemController.getItemById(userId, itemId);
+        ResponseEntity<Object> actual = itemController.getItemById(userId, itemId).join();
 
         assertEquals(expectedResponse, actual);
         verify(itemClient, times(1)).getItemById(userId, itemId);
@@ -76,9 +81,9 @@ class ItemControllerTest {
         Long userId = 1L;
         ResponseEntity<Object> expectedResponse = ResponseEntity.ok("Items list");
 
-        when(itemClient.getItemsByOwner(eq(userId))).thenReturn(expectedResponse);
+        when(itemClient.getItemsByOwner(eq(userId))).thenReturn(CompletableFuture.completedFuture(expectedResponse));
 
-        ResponseEntity<Object> actual = itemController.getItemsByOwner(userId);
+        ResponseEntity<Object> actual = itemController.getItemsByOwner(userId).join();
 
         assertEquals(expectedResponse, actual);
         verify(itemClient, times(1)).getItemsByOwner(userId);
@@ -89,12 +94,41 @@ class ItemControllerTest {
         String text = "query";
         ResponseEntity<Object> expectedResponse = ResponseEntity.ok("Search results");
 
-        when(itemClient.searchItems(eq(text))).thenReturn(expectedResponse);
+        when(itemClient.searchItems(eq(text), eq(20), eq(10))).thenReturn(CompletableFuture.completedFuture(expectedResponse));
+
+        ResponseEntity<Object> actual = itemController.searchItems(text, 20, 10).join();
+
+        assertEquals(expectedResponse, actual);
+        verify(itemClient, times(1)).searchItems(text, 20, 10);
+    }
+
+    @Test
+    void importItems_ShouldPassBodyToClient() {
+        Long userId = 1L;
+        InputStream body = new ByteArrayInputStream(new byte[0]);
+        ResponseEntity<Object> expectedResponse = ResponseEntity.ok("Imported");
+
+        when(itemClient.importItems(userId, body)).thenReturn(CompletableFuture.completedFuture(expectedResponse));
+
+        ResponseEntity<Object> actual = itemController.importItems(userId, body).join();
+
+        assertEquals(expectedResponse, actual);
+        verify(itemClient, times(1)).importItems(userId, body);
+    }
+
+    @Test
+    void getAvailability_ShouldPassPeriodToClient() {
+        Long itemId = 10L;
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = from.plusDays(7);
+        ResponseEntity<Object> expectedResponse = ResponseEntity.ok("[]");
+
+        when(itemClient.getAvailability(itemId, from, to)).thenReturn(CompletableFuture.completedFuture(expectedResponse));
 
-        ResponseEntity<Object> actual = itemController.searchItems(text);
+        ResponseEntity<Object> actual = itemController.getAvailability(itemId, from, to).join();
 
         assertEquals(expectedResponse, actual);
-        verify(itemClient, times(1)).searchItems(text);
+        verify(itemClient, times(1)).getAvailability(itemId, from, to);
     }
 
     @Test
@@ -104,9 +138,9 @@ class ItemControllerTest {
         CommentDto commentDto = new CommentDto();
         ResponseEntity<Object> expectedResponse = ResponseEntity.ok("Comment added");
 
-        when(itemClient.addComment(eq(userId), eq(itemId), eq(commentDto))).thenReturn(expectedResponse);
+        when(itemClient.addComment(eq(userId), eq(itemId), eq(commentDto))).thenReturn(CompletableFuture.completedFuture(expectedResponse));
 
-        ResponseEntity<Object> actual = itemController.addComment(userId, itemId, commentDto);
+        ResponseEntity<Object> actual = itemController.addComment(userId, itemId, commentDto).join();
 
         assertEquals(expectedResponse, actual);
         verify(itemClient, times(1)).addComment(userId, itemId, commentDto);
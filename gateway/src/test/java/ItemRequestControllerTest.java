@@ -6,18 +6,26 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import ru.practicum.shareit.ShareItGateway;
 import ru.practicum.shareit.request.ItemRequestClient;
 import ru.practicum.shareit.request.ItemRequestController;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.util.concurrent.CompletableFuture;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ItemRequestController.class)
@@ -38,9 +46,9 @@ class ItemRequestControllerTest {
 
         // Мокаем возвращаемое значение клиента
         when(itemRequestClient.createRequest(eq(userId), any(ItemRequestDto.class)))
-                .thenReturn(ResponseEntity.ok().body("created"));
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok().body("created")));
 
-        mockMvc.perform(post("/requests")
+        performAsync(post("/requests")
                         .header(HEADER_USER_ID, userId)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{\"description\":\"Need a drill\"}"))
@@ -55,9 +63,9 @@ class ItemRequestControllerTest {
         Long userId = 2L;
 
         when(itemRequestClient.getOwnRequests(userId))
-                .thenReturn(ResponseEntity.ok().body("ownRequests"));
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok().body("ownRequests")));
 
-        mockMvc.perform(get("/requests")
+        performAsync(get("/requests")
                         .header(HEADER_USER_ID, userId))
                 .andExpect(status().isOk())
                 .andExpect(content().string("ownRequests"));
@@ -69,32 +77,69 @@ class ItemRequestControllerTest {
     void getAllRequests_ShouldReturnResponseEntity_WithDefaults() throws Exception {
         Long userId = 3L;
 
-        when(itemRequestClient.getAllRequests(userId, 0, 10))
-                .thenReturn(ResponseEntity.ok().body("allRequests"));
+        when(itemRequestClient.getAllRequests(userId, null, 0, 10))
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok().body("allRequests")));
 
-        mockMvc.perform(get("/requests/all")
+        performAsync(get("/requests/all")
                         .header(HEADER_USER_ID, userId))
                 .andExpect(status().isOk())
                 .andExpect(content().string("allRequests"));
 
-        verify(itemRequestClient).getAllRequests(userId, 0, 10);
+        verify(itemRequestClient).getAllRequests(userId, null, 0, 10);
     }
 
     @Test
     void getAllRequests_ShouldReturnResponseEntity_WithParams() throws Exception {
         Long userId = 3L;
 
-        when(itemRequestClient.getAllRequests(userId, 5, 15))
-                .thenReturn(ResponseEntity.ok().body("allRequestsPaged"));
+        when(itemRequestClient.getAllRequests(userId, "abc", 0, 15))
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok().body("allRequestsPaged")));
 
-        mockMvc.perform(get("/requests/all")
+        performAsync(get("/requests/all")
                         .header(HEADER_USER_ID, userId)
-                        .param("from", "5")
+                        .param("cursor", "abc")
                         .param("size", "15"))
                 .andExpect(status().isOk())
                 .andExpect(content().string("allRequestsPaged"));
 
-        verify(itemRequestClient).getAllRequests(userId, 5, 15);
+        verify(itemRequestClient).getAllRequests(userId, "abc", 0, 15);
+    }
+
+    @Test
+    void getAllRequests_ShouldPassFrom_WithoutCursor() throws Exception {
+        Long userId = 3L;
+
+        when(itemRequestClient.getAllRequests(userId, null, 20, 10))
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok().body("allRequestsFrom")));
+
+        performAsync(get("/requests/all")
+                        .header(HEADER_USER_ID, userId)
+                        .param("from", "20")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("allRequestsFrom"));
+
+        verify(itemRequestClient).getAllRequests(userId, null, 20, 10);
+    }
+
+    @Test
+    void getAllRequests_ShouldReturnBadRequest_ForNegativeFrom() throws Exception {
+        mockMvc.perform(get("/requests/all")
+                        .header(HEADER_USER_ID, 3L)
+                        .param("from", "-1"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemRequestClient);
+    }
+
+    @Test
+    void getAllRequests_ShouldReturnBadRequest_ForNonPositiveSize() throws Exception {
+        mockMvc.perform(get("/requests/all")
+                        .header(HEADER_USER_ID, 3L)
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemRequestClient);
     }
 
     @Test
@@ -103,13 +148,21 @@ class ItemRequestControllerTest {
         Long requestId = 100L;
 
         when(itemRequestClient.getRequestById(userId, requestId))
-                .thenReturn(ResponseEntity.ok().body("requestById"));
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok().body("requestById")));
 
-        mockMvc.perform(get("/requests/{requestId}", requestId)
+        performAsync(get("/requests/{requestId}", requestId)
                         .header(HEADER_USER_ID, userId))
                 .andExpect(status().isOk())
                 .andExpect(content().string("requestById"));
 
         verify(itemRequestClient).getRequestById(userId, requestId);
     }
+
+    // Контроллеры возвращают CompletableFuture: ответ формируется после асинхронной обработки
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
 }
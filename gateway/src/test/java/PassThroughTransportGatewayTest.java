@@ -0,0 +1,200 @@
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.ShareItGateway;
+import ru.practicum.shareit.client.ServerTransport;
+import ru.practicum.shareit.client.StreamingServerTransport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = ShareItGateway.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "shareit-server.transport=pass-through",
+                "shareit-server.http.max-connections=1",
+                "shareit-server.http.max-connections-per-route=1",
+                "shareit-server.http.connection-request-timeout=1s"
+        })
+class PassThroughTransportGatewayTest {
+
+    private static final String BOOKINGS = "[{\"id\":2,\"status\":\"WAITING\"},{\"id\":1,\"status\":\"APPROVED\"}]";
+
+    private static final HttpServer SERVER = startServer();
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ServerTransport transport;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.stop(0);
+    }
+
+    @Test
+    void ownerBookings_shouldBeProxiedByteForByte() {
+        ResponseEntity<String> response = restTemplate.exchange("/bookings/owner?state=ALL", HttpMethod.GET,
+                new HttpEntity<>(userHeader()), String.class);
+
+        assertInstanceOf(StreamingServerTransport.class, transport);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("next", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertEquals(BOOKINGS, response.getBody());
+    }
+
+    @Test
+    void serverError_shouldKeepStatusAndBody() {
+        ResponseEntity<String> response = restTemplate.exchange("/bookings/404", HttpMethod.GET,
+                new HttpEntity<>(userHeader()), String.class);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("{\"error\":\"Бронирование не найдено\"}", response.getBody());
+    }
+
+    @Test
+    void requestBody_shouldReachServer() {
+        HttpHeaders headers = userHeader();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        ResponseEntity<String> response = restTemplate.exchange("/bookings", HttpMethod.POST,
+                new HttpEntity<>("{\"itemId\":1,\"start\":\"2099-06-06T10:00:00\",\"end\":\"2099-06-07T10:00:00\"}",
+                        headers), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("{\"start\":\"2099-06-06T10:00:00\",\"end\":\"2099-06-07T10:00:00\",\"itemId\":1}",
+                response.getBody());
+    }
+
+    @Test
+    void importItems_shouldStreamRecordsToServerAsJsonArray() {
+        HttpHeaders headers = userHeader();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+
+        ResponseEntity<String> response = restTemplate.exchange("/items/import", HttpMethod.POST,
+                new HttpEntity<>("{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}\n", headers),
+                String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().startsWith("[{"));
+        assertTrue(response.getBody().contains("\"name\":\"Дрель\""));
+        assertTrue(response.getBody().endsWith("}]"));
+    }
+
+    @Test
+    void importItems_shouldRejectMalformedRecord() {
+        HttpHeaders headers = userHeader();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+
+        ResponseEntity<String> response = restTemplate.exchange("/items/import", HttpMethod.POST,
+                new HttpEntity<>("{\"name\":\"Дрель\"}\n{\"name\":", headers), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertTrue(response.getBody().contains("Некорректная запись импорта №2"));
+    }
+
+    @Test
+    void connection_shouldReturnToPoolAfterStreaming() {
+        // В пуле одно соединение: если тело ответа не закрывается, следующий запрос не дождётся соединения
+        for (int i = 0; i < 10; i++) {
+            ResponseEntity<String> response = restTemplate.exchange("/bookings/owner?state=ALL", HttpMethod.GET,
+                    new HttpEntity<>(userHeader()), String.class);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+        }
+    }
+
+    @Test
+    void connection_shouldReturnToPoolAfterAbortedImport() {
+        HttpHeaders headers = userHeader();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        // Тело импорта обрывается на некорректной записи; соединение всё равно должно вернуться в пул из одного
+        for (int i = 0; i < 3; i++) {
+            ResponseEntity<String> rejected = restTemplate.exchange("/items/import", HttpMethod.POST,
+                    new HttpEntity<>("{\"name\":\"Дрель\"}\n{\"name\":", headers), String.class);
+
+            assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+        }
+
+        ResponseEntity<String> response = restTemplate.exchange("/bookings/owner?state=ALL", HttpMethod.GET,
+                new HttpEntity<>(userHeader()), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    private static HttpHeaders userHeader() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", "1");
+        return headers;
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            // Эхо тела импорта: тест видит, что сервер получил от шлюза
+            server.createContext("/items/import", exchange -> {
+                byte[] body;
+                try (InputStream in = exchange.getRequestBody()) {
+                    body = in.readAllBytes();
+                } catch (IOException e) {
+                    // Шлюз оборвал тело на некорректной записи
+                    exchange.close();
+                    return;
+                }
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.createContext("/bookings", exchange -> {
+                byte[] body;
+                int status = 200;
+                if ("POST".equals(exchange.getRequestMethod())) {
+                    try (InputStream in = exchange.getRequestBody()) {
+                        body = in.readAllBytes();
+                    }
+                } else if (exchange.getRequestURI().getPath().endsWith("/404")) {
+                    body = "{\"error\":\"Бронирование не найдено\"}".getBytes(StandardCharsets.UTF_8);
+                    status = 404;
+                } else {
+                    body = BOOKINGS.getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().add("X-Next-Cursor", "next");
+                }
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(status, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
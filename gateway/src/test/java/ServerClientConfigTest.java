@@ -0,0 +1,113 @@
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.ShareItGateway;
+import ru.practicum.shareit.item.client.ItemClient;
+import ru.practicum.shareit.user.client.UserClient;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = ShareItGateway.class, webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "shareit-server.http.max-connections-per-route=7")
+class ServerClientConfigTest {
+
+    private static final AtomicReference<String> RECEIVED_BODY = new AtomicReference<>();
+
+    private static final HttpServer SERVER = startServer();
+
+    @Autowired
+    private UserClient userClient;
+
+    @Autowired
+    private ItemClient itemClient;
+
+    @Autowired
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.stop(0);
+    }
+
+    @Test
+    void clients_shouldReuseOneKeepAliveConnectionFromSharedPool() {
+        ResponseEntity<Object> user = userClient.getById(1L).join();
+        ResponseEntity<Object> item = itemClient.getItemById(1L, 1L).join();
+
+        assertTrue(user.getStatusCode().is2xxSuccessful());
+        assertTrue(item.getStatusCode().is2xxSuccessful());
+        assertEquals(0, connectionManager.getTotalStats().getLeased());
+        assertEquals(1, connectionManager.getTotalStats().getAvailable());
+        assertEquals(7, connectionManager.getDefaultMaxPerRoute());
+    }
+
+    @Test
+    void importItems_shouldStreamRecordsToServer() {
+        String ndjson = "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}\n"
+                + "{\"name\":\"Пила\",\"description\":\"Ручная\",\"available\":true}\n";
+
+        ResponseEntity<Object> response = itemClient.importItems(1L,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8))).join();
+
+        assertTrue(response.getStatusCode().is2xxSuccessful());
+        assertTrue(RECEIVED_BODY.get().startsWith("[{"));
+        assertTrue(RECEIVED_BODY.get().contains("\"name\":\"Пила\""));
+        assertTrue(RECEIVED_BODY.get().endsWith("}]"));
+        assertEquals(0, connectionManager.getTotalStats().getLeased());
+    }
+
+    @Test
+    void pool_shouldExposeMetrics() {
+        double maxConnections = meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", "shareit-server")
+                .gauge()
+                .value();
+
+        assertEquals(200, maxConnections);
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", exchange -> {
+                try (InputStream in = exchange.getRequestBody()) {
+                    RECEIVED_BODY.set(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                }
+                byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
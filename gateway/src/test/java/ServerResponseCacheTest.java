@@ -0,0 +1,184 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.client.ServerResponseCache;
+import ru.practicum.shareit.client.ServerResponseCacheProperties;
+import ru.practicum.shareit.client.ServerTransport;
+import ru.practicum.shareit.item.client.ItemClient;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ServerResponseCacheTest {
+
+    private static final URI ITEM_URI = URI.create("http://server/items/5");
+
+    private final ServerTransport transport = mock(ServerTransport.class);
+
+    @Test
+    void repeatedRead_shouldBeServedWithoutServer() {
+        ItemClient itemClient = itemClient(cache(Duration.ofMinutes(1)));
+        when(transport.exchange(eq(HttpMethod.GET), eq(ITEM_URI), any(), any()))
+                .thenAnswer(invocation -> ok("{\"id\":5}", "\"v1\""));
+
+        ResponseEntity<Object> first = itemClient.getItemById(1L, 5L).join();
+        ResponseEntity<Object> second = itemClient.getItemById(1L, 5L).join();
+        // Ответ другому пользователю кэшируется отдельно
+        itemClient.getItemById(2L, 5L).join();
+
+        assertArrayEquals("{\"id\":5}".getBytes(StandardCharsets.UTF_8), (byte[]) second.getBody());
+        assertEquals(first, second);
+        verify(transport, times(2)).exchange(eq(HttpMethod.GET), eq(ITEM_URI), any(), any());
+    }
+
+    @Test
+    void write_shouldInvalidateResourceAndDependents() {
+        ServerResponseCache cache = cache(Duration.ofMinutes(1));
+        ItemClient itemClient = itemClient(cache);
+        BookingClient bookingClient = new BookingClient("http://server", transport, cache);
+        when(transport.exchange(any(), any(), any(), any())).thenAnswer(invocation -> ok("{\"id\":5}", null));
+
+        itemClient.getItemById(1L, 5L).join();
+        itemClient.updateItem(1L, 5L, new ItemDto(null, "Дрель", null, null, null, null)).join();
+        itemClient.getItemById(1L, 5L).join();
+        // Подтверждение бронирования меняет последнее и ближайшее бронирование вещи
+        bookingClient.approveBooking(1L, 7L, true).join();
+        itemClient.getItemById(1L, 5L).join();
+
+        verify(transport, times(3)).exchange(eq(HttpMethod.GET), eq(ITEM_URI), any(), any());
+    }
+
+    @Test
+    void unrelatedWrite_shouldKeepResourceCached() {
+        ServerResponseCache cache = cache(Duration.ofMinutes(1));
+        ItemClient itemClient = itemClient(cache);
+        when(transport.exchange(any(), any(), any(), any())).thenAnswer(invocation -> ok("{\"id\":5}", null));
+
+        itemClient.getItemById(1L, 5L).join();
+        itemClient.updateItem(1L, 6L, new ItemDto(null, "Дрель", null, null, null, null)).join();
+        // Отзыв к другой вещи виден только в ней
+        itemClient.addComment(1L, 6L, null).join();
+        itemClient.getItemById(1L, 5L).join();
+
+        verify(transport, times(1)).exchange(eq(HttpMethod.GET), eq(ITEM_URI), any(), any());
+    }
+
+    @Test
+    void readInFlight_shouldBeStoredDespiteUnrelatedWrite() {
+        ItemClient itemClient = itemClient(cache(Duration.ofMinutes(1)));
+        CompletableFuture<ResponseEntity<Object>> inFlight = new CompletableFuture<>();
+        when(transport.exchange(eq(HttpMethod.GET), eq(ITEM_URI), any(), any())).thenReturn(inFlight);
+        when(transport.exchange(eq(HttpMethod.PATCH), any(), any(), any())).thenAnswer(invocation -> ok("{}", null));
+
+        CompletableFuture<ResponseEntity<Object>> first = itemClient.getItemById(1L, 5L);
+        itemClient.updateItem(1L, 6L, new ItemDto(null, "Дрель", null, null, null, null)).join();
+        inFlight.complete(ok("{\"id\":5}", null).join());
+        first.join();
+        itemClient.getItemById(1L, 5L).join();
+
+        verify(transport, times(1)).exchange(eq(HttpMethod.GET), eq(ITEM_URI), any(), any());
+    }
+
+    @Test
+    void dependentWrite_shouldRevalidateByEtag() {
+        ServerResponseCache cache = cache(Duration.ofMinutes(1));
+        ItemClient itemClient = itemClient(cache);
+        BookingClient bookingClient = new BookingClient("http://server", transport, cache);
+        when(transport.exchange(eq(HttpMethod.GET), eq(ITEM_URI), any(), any()))
+                .thenReturn(ok("{\"id\":5}", "\"v1\""))
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build()));
+        when(transport.exchange(eq(HttpMethod.PATCH), any(), any(), any())).thenAnswer(invocation -> ok("{}", null));
+
+        ResponseEntity<Object> first = itemClient.getItemById(1L, 5L).join();
+        bookingClient.approveBooking(1L, 7L, true).join();
+        ResponseEntity<Object> revalidated = itemClient.getItemById(1L, 5L).join();
+        // Перепроверенный ответ снова свежий
+        itemClient.getItemById(1L, 5L).join();
+
+        ArgumentCaptor<HttpHeaders> headers = ArgumentCaptor.forClass(HttpHeaders.class);
+        verify(transport, times(2)).exchange(eq(HttpMethod.GET), eq(ITEM_URI), headers.capture(), any());
+        assertEquals(List.of("\"v1\""), headers.getAllValues().get(1).getIfNoneMatch());
+        assertEquals(first, revalidated);
+    }
+
+    @Test
+    void disabledCache_shouldSendEveryReadToServer() {
+        ItemClient itemClient = itemClient(new ServerResponseCache("http://server", new ServerResponseCacheProperties()));
+        when(transport.exchange(eq(HttpMethod.GET), eq(ITEM_URI), any(), any()))
+                .thenAnswer(invocation -> ok("{\"id\":5}", "\"v1\""));
+
+        itemClient.getItemById(1L, 5L).join();
+        itemClient.getItemById(1L, 5L).join();
+
+        ArgumentCaptor<HttpHeaders> headers = ArgumentCaptor.forClass(HttpHeaders.class);
+        verify(transport, times(2)).exchange(eq(HttpMethod.GET), eq(ITEM_URI), headers.capture(), any());
+        assertTrue(headers.getAllValues().get(1).getIfNoneMatch().isEmpty());
+    }
+
+    @Test
+    void staleRead_shouldBeRevalidatedByEtag() {
+        ItemClient itemClient = itemClient(cache(Duration.ZERO));
+        when(transport.exchange(eq(HttpMethod.GET), eq(ITEM_URI), any(), any()))
+                .thenReturn(ok("{\"id\":5}", "\"v1\""))
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build()));
+
+        ResponseEntity<Object> first = itemClient.getItemById(1L, 5L).join();
+        ResponseEntity<Object> revalidated = itemClient.getItemById(1L, 5L).join();
+
+        ArgumentCaptor<HttpHeaders> headers = ArgumentCaptor.forClass(HttpHeaders.class);
+        verify(transport, times(2)).exchange(eq(HttpMethod.GET), eq(ITEM_URI), headers.capture(), any());
+        assertTrue(headers.getAllValues().get(0).getIfNoneMatch().isEmpty());
+        assertEquals(List.of("\"v1\""), headers.getAllValues().get(1).getIfNoneMatch());
+        assertEquals(HttpStatus.OK, revalidated.getStatusCode());
+        assertEquals(first, revalidated);
+    }
+
+    @Test
+    void errorResponse_shouldNotBeCached() {
+        ItemClient itemClient = itemClient(cache(Duration.ofMinutes(1)));
+        when(transport.exchange(eq(HttpMethod.GET), eq(ITEM_URI), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_FOUND).build()));
+
+        itemClient.getItemById(1L, 5L).join();
+        itemClient.getItemById(1L, 5L).join();
+
+        verify(transport, times(2)).exchange(eq(HttpMethod.GET), eq(ITEM_URI), any(), any());
+    }
+
+    private ItemClient itemClient(ServerResponseCache cache) {
+        return new ItemClient("http://server", transport, cache, new ObjectMapper());
+    }
+
+    private static ServerResponseCache cache(Duration timeToLive) {
+        ServerResponseCacheProperties properties = new ServerResponseCacheProperties();
+        properties.setEnabled(true);
+        properties.setTimeToLive(timeToLive);
+        return new ServerResponseCache("http://server", properties);
+    }
+
+    // Тело потоком, как у транспортов pass-through и async
+    private static CompletableFuture<ResponseEntity<Object>> ok(String json, String etag) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (etag != null) {
+            response.eTag(etag);
+        }
+        return CompletableFuture.completedFuture(response.body(
+                new InputStreamResource(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))));
+    }
+}
@@ -6,17 +6,23 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import ru.practicum.shareit.ShareItGateway;
 import ru.practicum.shareit.user.client.UserClient;
 import ru.practicum.shareit.user.controller.UserController;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.concurrent.CompletableFuture;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(UserController.class)
@@ -38,9 +44,9 @@ class UserControllerTest {
         userDto.setEmail("john@example.com");
 
         when(userClient.create(any(UserDto.class)))
-                .thenReturn(ResponseEntity.ok("createdUser"));
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok("createdUser")));
 
-        mockMvc.perform(post(BASE_URL)
+        performAsync(post(BASE_URL)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{\"name\":\"John\",\"email\":\"john@example.com\"}"))
                 .andExpect(status().isOk())
@@ -54,9 +60,9 @@ class UserControllerTest {
         Long userId = 1L;
 
         when(userClient.getById(userId))
-                .thenReturn(ResponseEntity.ok("userById"));
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok("userById")));
 
-        mockMvc.perform(get(BASE_URL + "/" + userId))
+        performAsync(get(BASE_URL + "/" + userId))
                 .andExpect(status().isOk())
                 .andExpect(content().string("userById"));
 
@@ -66,9 +72,9 @@ class UserControllerTest {
     @Test
     void getAllUsers_ShouldReturnUserList() throws Exception {
         when(userClient.getAll())
-                .thenReturn(ResponseEntity.ok("allUsers"));
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok("allUsers")));
 
-        mockMvc.perform(get(BASE_URL))
+        performAsync(get(BASE_URL))
                 .andExpect(status().isOk())
                 .andExpect(content().string("allUsers"));
 
@@ -83,9 +89,9 @@ class UserControllerTest {
         userDto.setEmail("updated@example.com");
 
         when(userClient.update(eq(userId), any(UserDto.class)))
-                .thenReturn(ResponseEntity.ok("updatedUser"));
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok("updatedUser")));
 
-        mockMvc.perform(patch(BASE_URL + "/" + userId)
+        performAsync(patch(BASE_URL + "/" + userId)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content("{\"name\":\"UpdatedName\",\"email\":\"updated@example.com\"}"))
                 .andExpect(status().isOk())
@@ -99,12 +105,20 @@ class UserControllerTest {
         Long userId = 3L;
 
         when(userClient.delete(userId))
-                .thenReturn(ResponseEntity.ok("deleted"));
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok("deleted")));
 
-        mockMvc.perform(delete(BASE_URL + "/" + userId))
+        performAsync(delete(BASE_URL + "/" + userId))
                 .andExpect(status().isOk())
                 .andExpect(content().string("deleted"));
 
         verify(userClient).delete(userId);
     }
+
+    // Контроллеры возвращают CompletableFuture: ответ формируется после асинхронной обработки
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
 }
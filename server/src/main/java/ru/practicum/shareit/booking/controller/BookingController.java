@@ -2,13 +2,20 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.dto.BookingApprovalDtoInput;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.KeysetCursor;
 
 import java.util.List;
 
+import static ru.practicum.shareit.pagination.KeysetPages.withNextCursor;
+
 @Slf4j
 @RestController
 @RequestMapping("/bookings")
@@ -33,24 +40,45 @@ public class BookingController {
     }
 
 
+    @PatchMapping
+    public List<BookingApprovalResultDto> approveBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                          @RequestParam boolean approved,
+                                                          @RequestBody BookingApprovalDtoInput dto) {
+        return bookingService.approveBookings(userId, dto.getBookingIds(), approved);
+    }
+
+
+    // На совпавший If-None-Match — 304 без сборки ответа
     @GetMapping("/{bookingId}")
-    public BookingDto getBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                 @PathVariable Long bookingId) {
-        return bookingService.getBooking(userId, bookingId);
+    public ResponseEntity<BookingDto> getBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                 @PathVariable Long bookingId,
+                                                 WebRequest request) {
+        String etag = bookingService.getBookingVersionTag(userId, bookingId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(bookingService.getBooking(userId, bookingId));
     }
 
 
     @GetMapping
-    public List<BookingDto> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                            @RequestParam(defaultValue = "ALL") String state) {
-        return bookingService.getUserBookings(userId, state);
+    public ResponseEntity<List<BookingDto>> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                            @RequestParam(defaultValue = "ALL") String state,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer size) {
+        return withNextCursor(bookingService.getUserBookings(userId, state, cursor, size), size, BookingController::position);
     }
 
 
     @GetMapping("/owner")
-    public List<BookingDto> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long ownerId,
-                                             @RequestParam(defaultValue = "ALL") String state) {
-        return bookingService.getOwnerBookings(ownerId, state);
+    public ResponseEntity<List<BookingDto>> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                                             @RequestParam(defaultValue = "ALL") String state,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer size) {
+        return withNextCursor(bookingService.getOwnerBookings(ownerId, state, cursor, size), size, BookingController::position);
     }
-}
 
+    private static KeysetCursor position(BookingDto booking) {
+        return new KeysetCursor(booking.getStart(), booking.getId());
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+/**
+ * Итог рассмотрения одного бронирования из пакета: статус после запроса (null, если бронирование не найдено)
+ * и причина отказа (null, если статус изменён).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingApprovalResultDto {
+    private Long bookingId;
+    private BookingStatus status;
+    private String error;
+}
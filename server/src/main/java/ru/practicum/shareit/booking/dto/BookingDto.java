@@ -20,5 +20,13 @@ public class BookingDto {
     private BookingStatus status;
     private UserDto booker;
     private ItemDto item;
+
+    // Для выборки DTO прямо в запросе: поля арендатора и вещи приходят плоским списком
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                      Long bookerId, String bookerName, String bookerEmail,
+                      Long itemId, String itemName, String itemDescription, Boolean itemAvailable, Long itemRequestId) {
+        this(id, start, end, status, new UserDto(bookerId, bookerName, bookerEmail),
+                new ItemDto(itemId, itemName, itemDescription, itemAvailable, itemRequestId));
+    }
 }
 
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.booking.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Последнее и ближайшее подтверждённое бронирование вещи на момент последнего пересчёта.
+ * Строка есть только у вещей, у которых подтверждали бронирования.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "item_booking_summary")
+public class ItemBookingSummary {
+
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    // Окончание последнего начавшегося бронирования
+    @Column(name = "last_booking")
+    private LocalDateTime lastBooking;
+
+    // Начало ближайшего будущего бронирования; когда оно наступает, строку нужно пересчитать
+    @Column(name = "next_booking")
+    private LocalDateTime nextBooking;
+
+    public boolean isStale(LocalDateTime now) {
+        return nextBooking != null && !nextBooking.isAfter(now);
+    }
+}
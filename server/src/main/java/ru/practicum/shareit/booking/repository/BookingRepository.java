@@ -1,98 +1,159 @@
 package ru.practicum.shareit.booking.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.dto.ItemBookingTimeDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    // Условие keyset-пагинации: бронирования строго после курсора в порядке (start DESC, id DESC)
+    String KEYSET_CONDITION = "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId)) ";
+    String KEYSET_ORDER = "ORDER BY b.start DESC, b.id DESC";
+
+    // Списки бронирований выбираются сразу в BookingDto: только нужные столбцы, без сущностей и прокси
+    String BOOKING_VIEW = "SELECT new ru.practicum.shareit.booking.dto.BookingDto(" +
+            "b.id, b.start, b.end, b.status, bk.id, bk.name, bk.email, " +
+            "i.id, i.name, i.description, i.available, i.request.id) " +
+            "FROM Booking b JOIN b.booker bk JOIN b.item i ";
+
+    // Бронирование загружается вместе с вещью, её владельцем и арендатором одним запросом
+    @Override
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findById(Long id);
+
+    // Бронирования для пакетного рассмотрения: вещь нужна для проверки владельца, арендатор — нет
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item WHERE b.id IN :ids")
+    List<Booking> findAllWithItemByIdIn(@Param("ids") Collection<Long> ids);
+
     // Все бронирования пользователя
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId ORDER BY b.start DESC")
-    List<Booking> findAllByBookerId(@Param("bookerId") Long bookerId);
+    @Query(BOOKING_VIEW + "WHERE bk.id = :bookerId " + KEYSET_CONDITION + KEYSET_ORDER)
+    List<BookingDto> findAllByBookerId(@Param("bookerId") Long bookerId,
+            @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Limit limit);
 
     // Текущие бронирования пользователя
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.booker.id = :bookerId AND b.start <= :now AND b.end >= :now " +
-            "ORDER BY b.start DESC")
-    List<Booking> findCurrentByBookerId(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now);
+    @Query(BOOKING_VIEW +
+            "WHERE bk.id = :bookerId AND b.start <= :now AND b.end >= :now " +
+            KEYSET_CONDITION + KEYSET_ORDER)
+    List<BookingDto> findCurrentByBookerId(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now,
+            @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Limit limit);
 
     // Прошедшие бронирования пользователя
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.booker.id = :bookerId AND b.end < :now " +
-            "ORDER BY b.start DESC")
-    List<Booking> findPastByBookerId(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now);
+    @Query(BOOKING_VIEW +
+            "WHERE bk.id = :bookerId AND b.end < :now " +
+            KEYSET_CONDITION + KEYSET_ORDER)
+    List<BookingDto> findPastByBookerId(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now,
+            @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Limit limit);
 
     // Будущие бронирования пользователя
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.booker.id = :bookerId AND b.start > :now " +
-            "ORDER BY b.start DESC")
-    List<Booking> findFutureByBookerId(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now);
+    @Query(BOOKING_VIEW +
+            "WHERE bk.id = :bookerId AND b.start > :now " +
+            KEYSET_CONDITION + KEYSET_ORDER)
+    List<BookingDto> findFutureByBookerId(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now,
+            @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Limit limit);
 
     // Ожидающие подтверждения бронирования пользователя
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.booker.id = :bookerId AND b.status = 'WAITING' " +
-            "ORDER BY b.start DESC")
-    List<Booking> findWaitingByBookerId(@Param("bookerId") Long bookerId);
+    @Query(BOOKING_VIEW +
+            "WHERE bk.id = :bookerId AND b.status = 'WAITING' " +
+            KEYSET_CONDITION + KEYSET_ORDER)
+    List<BookingDto> findWaitingByBookerId(@Param("bookerId") Long bookerId,
+            @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Limit limit);
 
     // Отклонённые бронирования пользователя
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.booker.id = :bookerId AND b.status = 'REJECTED' " +
-            "ORDER BY b.start DESC")
-    List<Booking> findRejectedByBookerId(@Param("bookerId") Long bookerId);
+    @Query(BOOKING_VIEW +
+            "WHERE bk.id = :bookerId AND b.status = 'REJECTED' " +
+            KEYSET_CONDITION + KEYSET_ORDER)
+    List<BookingDto> findRejectedByBookerId(@Param("bookerId") Long bookerId,
+            @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Limit limit);
 
     // Все бронирования владельца
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.owner.id = :ownerId " +
-            "ORDER BY b.start DESC")
-    List<Booking> findAllByOwnerId(@Param("ownerId") Long ownerId);
+    @Query(BOOKING_VIEW +
+            "WHERE i.owner.id = :ownerId " +
+            KEYSET_CONDITION + KEYSET_ORDER)
+    List<BookingDto> findAllByOwnerId(@Param("ownerId") Long ownerId,
+            @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Limit limit);
 
     // Текущие бронирования владельца
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.owner.id = :ownerId AND b.start <= :now AND b.end >= :now " +
-            "ORDER BY b.start DESC")
-    List<Booking> findCurrentByOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now);
+    @Query(BOOKING_VIEW +
+            "WHERE i.owner.id = :ownerId AND b.start <= :now AND b.end >= :now " +
+            KEYSET_CONDITION + KEYSET_ORDER)
+    List<BookingDto> findCurrentByOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now,
+            @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Limit limit);
 
     // Прошедшие бронирования владельца
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.owner.id = :ownerId AND b.end < :now " +
-            "ORDER BY b.start DESC")
-    List<Booking> findPastByOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now);
+    @Query(BOOKING_VIEW +
+            "WHERE i.owner.id = :ownerId AND b.end < :now " +
+            KEYSET_CONDITION + KEYSET_ORDER)
+    List<BookingDto> findPastByOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now,
+            @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Limit limit);
 
     // Будущие бронирования владельца
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.owner.id = :ownerId AND b.start > :now " +
-            "ORDER BY b.start DESC")
-    List<Booking> findFutureByOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now);
+    @Query(BOOKING_VIEW +
+            "WHERE i.owner.id = :ownerId AND b.start > :now " +
+            KEYSET_CONDITION + KEYSET_ORDER)
+    List<BookingDto> findFutureByOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now,
+            @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Limit limit);
 
     // Ожидающие подтверждения бронирования владельца
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.owner.id = :ownerId AND b.status = 'WAITING' " +
-            "ORDER BY b.start DESC")
-    List<Booking> findWaitingByOwnerId(@Param("ownerId") Long ownerId);
+    @Query(BOOKING_VIEW +
+            "WHERE i.owner.id = :ownerId AND b.status = 'WAITING' " +
+            KEYSET_CONDITION + KEYSET_ORDER)
+    List<BookingDto> findWaitingByOwnerId(@Param("ownerId") Long ownerId,
+            @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Limit limit);
 
     // Отклонённые бронирования владельца
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.owner.id = :ownerId AND b.status = 'REJECTED' " +
-            "ORDER BY b.start DESC")
-    List<Booking> findRejectedByOwnerId(@Param("ownerId") Long ownerId);
-
-    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.start < :now AND b.status = 'APPROVED' ORDER BY b.start DESC")
-    Optional<Booking> findLastBookingEntity(@Param("itemId") Long itemId, @Param("now") LocalDateTime now);
-
-    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.start > :now AND b.status = 'APPROVED' ORDER BY b.start ASC")
-    Optional<Booking> findNextBookingEntity(@Param("itemId") Long itemId, @Param("now") LocalDateTime now);
-
-    @Query("SELECT MAX(b.end) FROM Booking b WHERE b.item.id = :itemId AND b.start < :now AND b.status = 'APPROVED'")
-    LocalDateTime findLastBookingTime(@Param("itemId") Long itemId, @Param("now") LocalDateTime now);
-
-    @Query("SELECT MIN(b.start) FROM Booking b WHERE b.item.id = :itemId AND b.start > :now AND b.status = 'APPROVED'")
-    LocalDateTime findNextBookingTime(@Param("itemId") Long itemId, @Param("now") LocalDateTime now);
+    @Query(BOOKING_VIEW +
+            "WHERE i.owner.id = :ownerId AND b.status = 'REJECTED' " +
+            KEYSET_CONDITION + KEYSET_ORDER)
+    List<BookingDto> findRejectedByOwnerId(@Param("ownerId") Long ownerId,
+            @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Limit limit);
+
+    // Время окончания последнего бронирования для каждой вещи из списка
+    @Query("SELECT new ru.practicum.shareit.booking.dto.ItemBookingTimeDto(b.item.id, MAX(b.end)) FROM Booking b " +
+            "WHERE b.item.id IN :itemIds AND b.start < :now AND b.status = 'APPROVED' " +
+            "GROUP BY b.item.id")
+    List<ItemBookingTimeDto> findLastBookingTimes(@Param("itemIds") List<Long> itemIds, @Param("now") LocalDateTime now);
+
+    // Время начала ближайшего бронирования для каждой вещи из списка
+    @Query("SELECT new ru.practicum.shareit.booking.dto.ItemBookingTimeDto(b.item.id, MIN(b.start)) FROM Booking b " +
+            "WHERE b.item.id IN :itemIds AND b.start > :now AND b.status = 'APPROVED' " +
+            "GROUP BY b.item.id")
+    List<ItemBookingTimeDto> findNextBookingTimes(@Param("itemIds") List<Long> itemIds, @Param("now") LocalDateTime now);
+
+    // Подтверждённые бронирования вещи, которые ещё не закончились (BookingIntervalIndex)
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingIntervalDto(b.id, b.start, b.end) FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status = 'APPROVED' AND b.end > :from")
+    List<BookingIntervalDto> findApprovedIntervals(@Param("itemId") Long itemId, @Param("from") LocalDateTime from);
+
+    // Подтверждённые бронирования вещи, пересекающие [from, to), по возрастанию начала (доступность вещи)
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingIntervalDto(b.id, b.start, b.end) FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status = 'APPROVED' AND b.start < :to AND b.end > :from " +
+            "ORDER BY b.start")
+    List<BookingIntervalDto> findApprovedIntervalsBetween(@Param("itemId") Long itemId,
+                                                          @Param("from") LocalDateTime from,
+                                                          @Param("to") LocalDateTime to);
+
+    // Пересечение с подтверждёнными бронированиями вещи, которых нет в BookingIntervalIndex
+    @Query("SELECT COUNT(b) > 0 FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status = 'APPROVED' AND b.start < :end AND b.end > :start")
+    boolean existsApprovedOverlap(@Param("itemId") Long itemId,
+                                  @Param("start") LocalDateTime start,
+                                  @Param("end") LocalDateTime end);
+
+    // Вещи, сводку по которым меняет удаление арендатора вместе с его бронированиями
+    @Query("SELECT DISTINCT b.item.id FROM Booking b WHERE b.booker.id = :bookerId AND b.status = 'APPROVED'")
+    List<Long> findApprovedItemIdsByBookerId(@Param("bookerId") Long bookerId);
 
     @Query("SELECT COUNT(b) > 0 FROM Booking b " +
             "WHERE b.booker.id = :userId AND b.item.id = :itemId " +
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    // Вещи, у которых ближайшее бронирование уже началось
+    @Query("SELECT s.itemId FROM ItemBookingSummary s WHERE s.nextBooking <= :now")
+    List<Long> findItemIdsToRollForward(@Param("now") LocalDateTime now);
+
+    // Блокировка строк вещей до конца транзакции: одновременные пересчёты сводки одной вещи идут по очереди,
+    // и следующий видит бронирование, подтверждённое предыдущим. Порядок по id исключает взаимные блокировки
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id IN :itemIds ORDER BY i.id")
+    List<Item> lockItems(@Param("itemIds") Collection<Long> itemIds);
+}
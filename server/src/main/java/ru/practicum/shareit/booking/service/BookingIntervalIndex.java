@@ -0,0 +1,130 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.DuplicatedDataException;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Подтверждённые бронирования каждой вещи в памяти процесса, упорядоченные по началу.
+ * Проверка пересечения занимает O(log n) и блокирует только одну вещь, поэтому одновременные
+ * подтверждения разных вещей не ждут друг друга, а для одной вещи выполняются по очереди.
+ * Подтверждённые интервалы вещи не пересекаются (это обеспечивают сам индекс и ограничение
+ * ex_bookings_item_period в PostgreSQL), так что пересечься с новым интервалом может только
+ * последний из начавшихся раньше его конца.
+ * Закончившиеся бронирования в памяти не хранятся: интервал, начинающийся раньше загруженного
+ * участка, дополнительно проверяется запросом к базе.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+
+    private static final Comparator<BookingIntervalDto> BY_START = Comparator
+            .comparing(BookingIntervalDto::getStart)
+            .thenComparing(BookingIntervalDto::getBookingId);
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, ItemTimeline> timelines = new ConcurrentHashMap<>();
+
+    public boolean hasConflict(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ItemTimeline timeline = timeline(itemId);
+        synchronized (timeline) {
+            return overlaps(itemId, timeline, start, end);
+        }
+    }
+
+    /**
+     * Занимает интервал за бронированием или бросает DuplicatedDataException, если он пересекается
+     * с уже подтверждённым. При откате текущей транзакции интервал освобождается.
+     */
+    public void reserve(Long itemId, Long bookingId, LocalDateTime start, LocalDateTime end) {
+        ItemTimeline timeline = timeline(itemId);
+        BookingIntervalDto interval = new BookingIntervalDto(bookingId, start, end);
+        synchronized (timeline) {
+            if (overlaps(itemId, timeline, start, end)) {
+                throw new DuplicatedDataException("Вещь уже забронирована на это время");
+            }
+            timeline.intervals.add(interval);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        synchronized (timeline) {
+                            timeline.intervals.remove(interval);
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    // Бронирования вещей удалены в обход сервиса (каскадом вместе с пользователем)
+    public void evict(Collection<Long> itemIds) {
+        itemIds.forEach(timelines::remove);
+    }
+
+    private ItemTimeline timeline(Long itemId) {
+        ItemTimeline timeline = timelines.get(itemId);
+        if (timeline != null) {
+            return timeline;
+        }
+        // Загрузка идёт вне блокировки карты; из двух одновременно загруженных остаётся первая
+        LocalDateTime now = LocalDateTime.now();
+        ItemTimeline loaded = new ItemTimeline(now);
+        loaded.intervals.addAll(bookingRepository.findApprovedIntervals(itemId, now));
+        ItemTimeline existing = timelines.putIfAbsent(itemId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private boolean overlaps(Long itemId, ItemTimeline timeline, LocalDateTime start, LocalDateTime end) {
+        timeline.prune(LocalDateTime.now());
+
+        BookingIntervalDto previous = timeline.intervals.lower(probe(end));
+        if (previous != null && previous.getEnd().isAfter(start)) {
+            return true;
+        }
+        return start.isBefore(timeline.loadedFrom) && bookingRepository.existsApprovedOverlap(itemId, start, end);
+    }
+
+    // Ключ поиска, который меньше любого интервала, начинающегося в момент time
+    private static BookingIntervalDto probe(LocalDateTime time) {
+        return new BookingIntervalDto(Long.MIN_VALUE, time, time);
+    }
+
+    private static class ItemTimeline {
+
+        private final NavigableSet<BookingIntervalDto> intervals = new TreeSet<>(BY_START);
+
+        // Интервалы, закончившиеся раньше этого момента, в памяти не хранятся
+        private LocalDateTime loadedFrom;
+
+        private ItemTimeline(LocalDateTime loadedFrom) {
+            this.loadedFrom = loadedFrom;
+        }
+
+        // Интервалы не пересекаются, поэтому порядок по началу совпадает с порядком по концу
+        private void prune(LocalDateTime now) {
+            while (!intervals.isEmpty() && !intervals.first().getEnd().isAfter(now)) {
+                intervals.pollFirst();
+            }
+            if (now.isAfter(loadedFrom)) {
+                loadedFrom = now;
+            }
+        }
+    }
+}
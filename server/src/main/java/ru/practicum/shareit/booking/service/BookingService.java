@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 
@@ -11,10 +12,16 @@ public interface BookingService {
 
     BookingDto approveBooking(Long ownerId, Long bookingId, boolean approved);
 
+    List<BookingApprovalResultDto> approveBookings(Long ownerId, List<Long> bookingIds, boolean approved);
+
     BookingDto getBooking(Long userId, Long bookingId);
 
-    List<BookingDto> getUserBookings(Long userId, String state);
+    // Версии бронирования, вещи и арендатора для ETag ответа getBooking
+    String getBookingVersionTag(Long userId, Long bookingId);
+
+    // Без size возвращается весь остаток списка после курсора
+    List<BookingDto> getUserBookings(Long userId, String state, String cursor, Integer size);
 
-    List<BookingDto> getOwnerBookings(Long ownerId, String state);
+    List<BookingDto> getOwnerBookings(Long ownerId, String state, String cursor, Integer size);
 }
 
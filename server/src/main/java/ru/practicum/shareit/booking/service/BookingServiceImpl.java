@@ -1,8 +1,12 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
@@ -10,19 +14,28 @@ import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.config.ETags;
+import ru.practicum.shareit.exception.DuplicatedDataException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("shareit.service")
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
@@ -30,6 +43,8 @@ public class BookingServiceImpl implements BookingService {
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingMapper bookingMapper;
+    private final ItemBookingSummaryService bookingSummaryService;
+    private final BookingIntervalIndex bookingIntervalIndex;
 
     @Override
     @Transactional
@@ -48,6 +63,10 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Вещь недоступна для бронирования");
         }
 
+        if (bookingIntervalIndex.hasConflict(item.getId(), dto.getStart(), dto.getEnd())) {
+            throw new DuplicatedDataException("Вещь уже забронирована на это время");
+        }
+
         Booking booking = new Booking();
         booking.setStart(dto.getStart());
         booking.setEnd(dto.getEnd());
@@ -72,13 +91,104 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Бронирование уже рассмотрено");
         }
 
+        Long itemId = booking.getItem().getId();
+        if (approved) {
+            bookingIntervalIndex.reserve(itemId, booking.getId(), booking.getStart(), booking.getEnd());
+        }
+
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        return bookingMapper.toDto(bookingRepository.save(booking));
+        Booking saved;
+        try {
+            // Сброс сразу, чтобы нарушение ex_bookings_item_period (бронирование подтвердил другой экземпляр сервера)
+            // пришло отсюда, а не при фиксации транзакции
+            saved = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicatedDataException("Вещь уже забронирована на это время");
+        }
+        // Отклонённые бронирования в сводку вещи не входят
+        if (approved) {
+            bookingSummaryService.refresh(List.of(itemId));
+        }
+        return bookingMapper.toDto(saved);
+    }
+
+    /**
+     * Пакетное рассмотрение бронирований владельцем. Все бронирования загружаются одним запросом,
+     * а новые статусы уходят в базу одним JDBC-батчем при сбросе (hibernate.jdbc.batch_size).
+     * Бронирования, которые нельзя рассмотреть, пропускаются с причиной в ответе, остальные меняют статус.
+     * Пересекающиеся бронирования из одного пакета подтверждаются в порядке запроса: первое занимает время.
+     */
+    @Override
+    @Transactional
+    public List<BookingApprovalResultDto> approveBookings(Long userId, List<Long> bookingIds, boolean approved) {
+        if (bookingIds == null || bookingIds.isEmpty()) {
+            throw new ValidationException("Список бронирований не может быть пустым");
+        }
+        Set<Long> ids = new LinkedHashSet<>(bookingIds);
+        Map<Long, Booking> bookings = bookingRepository.findAllWithItemByIdIn(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        BookingStatus newStatus = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        List<BookingApprovalResultDto> results = new ArrayList<>(ids.size());
+        Set<Long> approvedItemIds = new LinkedHashSet<>();
+        for (Long bookingId : ids) {
+            Booking booking = bookings.get(bookingId);
+            if (booking == null) {
+                results.add(new BookingApprovalResultDto(bookingId, null, "Бронирование не найдено"));
+                continue;
+            }
+            if (!booking.getItem().getOwner().getId().equals(userId)) {
+                results.add(new BookingApprovalResultDto(bookingId, booking.getStatus(),
+                        "Подтверждение может выполнять только владелец вещи"));
+                continue;
+            }
+            if (booking.getStatus() != BookingStatus.WAITING) {
+                results.add(new BookingApprovalResultDto(bookingId, booking.getStatus(), "Бронирование уже рассмотрено"));
+                continue;
+            }
+            if (approved) {
+                Long itemId = booking.getItem().getId();
+                try {
+                    bookingIntervalIndex.reserve(itemId, bookingId, booking.getStart(), booking.getEnd());
+                } catch (DuplicatedDataException e) {
+                    results.add(new BookingApprovalResultDto(bookingId, booking.getStatus(), e.getMessage()));
+                    continue;
+                }
+                approvedItemIds.add(itemId);
+            }
+            booking.setStatus(newStatus);
+            results.add(new BookingApprovalResultDto(bookingId, newStatus, null));
+        }
+
+        try {
+            // Нарушение ex_bookings_item_period отменяет весь пакет: подтверждённые другим экземпляром
+            // сервера бронирования не видны индексу, и какое из них пересеклось, по батчу не определить
+            bookingRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicatedDataException("Вещь уже забронирована на это время");
+        }
+        if (!approvedItemIds.isEmpty()) {
+            bookingSummaryService.refresh(List.copyOf(approvedItemIds));
+        }
+        return results;
     }
 
     @Override
     @Transactional(readOnly = true)
     public BookingDto getBooking(Long userId, Long bookingId) {
+        return bookingMapper.toDto(findVisibleBooking(userId, bookingId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getBookingVersionTag(Long userId, Long bookingId) {
+        Booking booking = findVisibleBooking(userId, bookingId);
+        return ETags.strong(booking.getId(), booking.getVersion(), booking.getItem().getVersion(),
+                booking.getBooker().getVersion());
+    }
+
+    // Бронирование видно только арендатору и владельцу вещи
+    private Booking findVisibleBooking(Long userId, Long bookingId) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
 
@@ -88,58 +198,71 @@ public class BookingServiceImpl implements BookingService {
         if (!isBooker && !isOwner) {
             throw new NotFoundException("Доступ запрещён");
         }
-
-        return bookingMapper.toDto(booking);
+        return booking;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingDto> getUserBookings(Long userId, String state) {
-        if (!userRepository.existsById(userId)) {
+    public List<BookingDto> getUserBookings(Long userId, String state, String cursor, Integer size) {
+        List<BookingDto> bookings = getBookingsByStateForBooker(userId, BookingState.from(state),
+                KeysetCursor.decode(cursor), toLimit(size));
+        // Непустой список подтверждает, что пользователь существует; отдельная проверка нужна только для пустого
+        if (bookings.isEmpty() && !userRepository.existsById(userId)) {
             throw new NotFoundException("Пользователь не найден");
         }
 
-        return getBookingsByStateForBooker(userId, state).stream()
-                .map(bookingMapper::toDto)
-                .collect(Collectors.toList());
+        return bookings;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingDto> getOwnerBookings(Long ownerId, String state) {
-        if (!userRepository.existsById(ownerId)) {
+    public List<BookingDto> getOwnerBookings(Long ownerId, String state, String cursor, Integer size) {
+        List<BookingDto> bookings = getBookingsByStateForOwner(ownerId, BookingState.from(state),
+                KeysetCursor.decode(cursor), toLimit(size));
+        if (bookings.isEmpty() && !userRepository.existsById(ownerId)) {
             throw new NotFoundException("Пользователь не найден");
         }
 
-        return getBookingsByStateForOwner(ownerId, state).stream()
-                .map(bookingMapper::toDto)
-                .collect(Collectors.toList());
+        return bookings;
     }
 
-    private List<Booking> getBookingsByStateForBooker(Long userId, String state) {
+    private List<BookingDto> getBookingsByStateForBooker(Long userId, BookingState state, KeysetCursor cursor, Limit limit) {
         LocalDateTime now = LocalDateTime.now();
-        return switch (BookingState.from(state)) {
-            case ALL -> bookingRepository.findAllByBookerId(userId);
-            case CURRENT -> bookingRepository.findCurrentByBookerId(userId, now);
-            case PAST -> bookingRepository.findPastByBookerId(userId, now);
-            case FUTURE -> bookingRepository.findFutureByBookerId(userId, now);
-            case WAITING -> bookingRepository.findWaitingByBookerId(userId);
-            case REJECTED -> bookingRepository.findRejectedByBookerId(userId);
+        LocalDateTime start = cursor.getTimestamp();
+        Long id = cursor.getId();
+        return switch (state) {
+            case ALL -> bookingRepository.findAllByBookerId(userId, start, id, limit);
+            case CURRENT -> bookingRepository.findCurrentByBookerId(userId, now, start, id, limit);
+            case PAST -> bookingRepository.findPastByBookerId(userId, now, start, id, limit);
+            case FUTURE -> bookingRepository.findFutureByBookerId(userId, now, start, id, limit);
+            case WAITING -> bookingRepository.findWaitingByBookerId(userId, start, id, limit);
+            case REJECTED -> bookingRepository.findRejectedByBookerId(userId, start, id, limit);
         };
     }
 
-    private List<Booking> getBookingsByStateForOwner(Long ownerId, String state) {
+    private List<BookingDto> getBookingsByStateForOwner(Long ownerId, BookingState state, KeysetCursor cursor, Limit limit) {
         LocalDateTime now = LocalDateTime.now();
-        return switch (BookingState.from(state)) {
-            case ALL -> bookingRepository.findAllByOwnerId(ownerId);
-            case CURRENT -> bookingRepository.findCurrentByOwnerId(ownerId, now);
-            case PAST -> bookingRepository.findPastByOwnerId(ownerId, now);
-            case FUTURE -> bookingRepository.findFutureByOwnerId(ownerId, now);
-            case WAITING -> bookingRepository.findWaitingByOwnerId(ownerId);
-            case REJECTED -> bookingRepository.findRejectedByOwnerId(ownerId);
+        LocalDateTime start = cursor.getTimestamp();
+        Long id = cursor.getId();
+        return switch (state) {
+            case ALL -> bookingRepository.findAllByOwnerId(ownerId, start, id, limit);
+            case CURRENT -> bookingRepository.findCurrentByOwnerId(ownerId, now, start, id, limit);
+            case PAST -> bookingRepository.findPastByOwnerId(ownerId, now, start, id, limit);
+            case FUTURE -> bookingRepository.findFutureByOwnerId(ownerId, now, start, id, limit);
+            case WAITING -> bookingRepository.findWaitingByOwnerId(ownerId, start, id, limit);
+            case REJECTED -> bookingRepository.findRejectedByOwnerId(ownerId, start, id, limit);
         };
     }
 
-}
-
+    // Страница включается только явным size, иначе список отдаётся целиком, как до постраничного вывода
+    private Limit toLimit(Integer size) {
+        if (size == null) {
+            return Limit.unlimited();
+        }
+        if (size <= 0) {
+            throw new ValidationException("Размер страницы должен быть положительным");
+        }
+        return Limit.of(size);
+    }
 
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.ItemBookingTimeDto;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Хранит для каждой вещи время последнего и ближайшего подтверждённого бронирования,
+ * чтобы чтение вещи не агрегировало её бронирования заново.
+ * Сводка пересчитывается при подтверждении бронирования и по расписанию, когда ближайшее бронирование начинается.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemBookingSummaryService {
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final EntityManager entityManager;
+
+    /**
+     * Сводки по вещам; вещей без подтверждённых бронирований в результате нет.
+     * Строки, которые расписание ещё не успело продвинуть, пересчитываются по бронированиям без сохранения.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, ItemBookingSummary> getSummaries(List<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemBookingSummary> summaries = summaryRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+
+        List<Long> staleIds = summaries.values().stream()
+                .filter(summary -> summary.isStale(now))
+                .map(ItemBookingSummary::getItemId)
+                .toList();
+        if (!staleIds.isEmpty()) {
+            compute(staleIds, now).forEach(summary -> summaries.put(summary.getItemId(), summary));
+        }
+        return summaries;
+    }
+
+    @Transactional
+    public void refresh(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        summaryRepository.lockItems(itemIds);
+        // saveAll для сущностей с заданным идентификатором делает merge с отдельным SELECT на каждую строку,
+        // поэтому существующие сводки читаются одним запросом и меняются на месте, а новые сохраняются через persist:
+        // и обновления, и вставки уходят JDBC-батчами при сбросе контекста
+        Map<Long, ItemBookingSummary> existing = summaryRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+        for (ItemBookingSummary summary : compute(List.copyOf(itemIds), LocalDateTime.now())) {
+            ItemBookingSummary stored = existing.get(summary.getItemId());
+            if (stored == null) {
+                entityManager.persist(summary);
+            } else {
+                stored.setLastBooking(summary.getLastBooking());
+                stored.setNextBooking(summary.getNextBooking());
+            }
+        }
+    }
+
+    @Scheduled(cron = "${shareit.booking-summary.roll-forward-cron}")
+    @Transactional
+    public void rollForward() {
+        List<Long> itemIds = summaryRepository.findItemIdsToRollForward(LocalDateTime.now());
+        if (!itemIds.isEmpty()) {
+            refresh(itemIds);
+            log.info("Пересчитаны сводки бронирований для {} вещей", itemIds.size());
+        }
+    }
+
+    private List<ItemBookingSummary> compute(List<Long> itemIds, LocalDateTime now) {
+        Map<Long, LocalDateTime> lastBookingTimes = toTimeByItemId(bookingRepository.findLastBookingTimes(itemIds, now));
+        Map<Long, LocalDateTime> nextBookingTimes = toTimeByItemId(bookingRepository.findNextBookingTimes(itemIds, now));
+
+        return itemIds.stream()
+                .map(itemId -> new ItemBookingSummary(itemId, lastBookingTimes.get(itemId), nextBookingTimes.get(itemId)))
+                .toList();
+    }
+
+    private Map<Long, LocalDateTime> toTimeByItemId(List<ItemBookingTimeDto> bookingTimes) {
+        return bookingTimes.stream()
+                .collect(Collectors.toMap(ItemBookingTimeDto::getItemId, ItemBookingTimeDto::getTime));
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Сильные ETag ответов из версий строк, от которых зависит ответ. Сервисы отдают версии
+ * отдельными лёгкими запросами, чтобы на If-None-Match ответить 304 без сборки DTO.
+ * <p>
+ * Версия — поле {@code @Version} сущностей User, ItemRequest, Item и Booking: Hibernate увеличивает его
+ * при каждом изменении строки, и оно же служит оптимистической блокировкой.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String strong(Object... versions) {
+        String joined = Arrays.stream(versions)
+                .map(String::valueOf)
+                .collect(Collectors.joining(":"));
+        return "\"" + DigestUtils.md5DigestAsHex(joined.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
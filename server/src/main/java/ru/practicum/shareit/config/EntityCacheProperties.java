@@ -0,0 +1,22 @@
+package ru.practicum.shareit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Настройки кэша второго уровня Hibernate для пользователей и вещей.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.cache")
+public class EntityCacheProperties {
+
+    // Записей в каждом регионе; запросы в основном идут к небольшому числу популярных пользователей и вещей
+    private long maxSize = 10_000;
+
+    // Время жизни записи после загрузки или обновления
+    private Duration timeToLive = Duration.ofMinutes(10);
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.BaseSessionEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Считает запросы к базе и время их выполнения за одну сессию Hibernate и при закрытии сессии
+ * публикует их с шаблоном URI текущего HTTP-запроса. Hibernate создаёт слушатель через конструктор
+ * без параметров, поэтому метрики пишутся в глобальный реестр Micrometer, к которому Spring Boot
+ * подключает свой.
+ */
+public class JdbcSessionMetricsListener extends BaseSessionEventListener {
+
+    static final String STATEMENTS_METRIC = "shareit.jdbc.statements";
+    static final String TIME_METRIC = "shareit.jdbc.time";
+
+    // Сессии вне HTTP-запросов: задачи по расписанию, импорт из тестов и т. п.
+    private static final String NO_URI = "none";
+
+    private long statements;
+    private long executionNanos;
+    private long executionStart = -1;
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        statements++;
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        stopExecution();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        stopExecution();
+    }
+
+    @Override
+    public void end() {
+        if (statements == 0) {
+            return;
+        }
+        String uri = currentUri();
+        DistributionSummary.builder(STATEMENTS_METRIC)
+                .description("Запросы к базе за сессию Hibernate")
+                .baseUnit("statements")
+                .tag("uri", uri)
+                .register(Metrics.globalRegistry)
+                .record(statements);
+        Timer.builder(TIME_METRIC)
+                .description("Время выполнения запросов к базе за сессию Hibernate")
+                .tag("uri", uri)
+                .register(Metrics.globalRegistry)
+                .record(executionNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void stopExecution() {
+        if (executionStart >= 0) {
+            executionNanos += System.nanoTime() - executionStart;
+            executionStart = -1;
+        }
+    }
+
+    private static String currentUri() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return NO_URI;
+        }
+        Object pattern = attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        return pattern == null ? NO_URI : pattern.toString();
+    }
+}
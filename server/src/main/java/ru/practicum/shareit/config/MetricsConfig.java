@@ -0,0 +1,37 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Метрики сервера для поиска медленных запросов и N+1 без включения журнала SQL:
+ * shareit.service — время методов сервисов, помеченных @Timed (теги class и method);
+ * shareit.jdbc.statements и shareit.jdbc.time — число запросов к базе и время их выполнения
+ * за сессию Hibernate, то есть за HTTP-запрос при open-in-view (тег uri).
+ * Запросы к базе также считаются по таблицам ({@link QueryCounter}) для поиска N+1 в тестах и в работе.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcMetricsCustomizer() {
+        // Hibernate создаёт слушатель сам, по экземпляру на каждую сессию
+        return properties -> properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                JdbcSessionMetricsListener.class.getName());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountCustomizer() {
+        // Явно заданный инспектор (например, в тестах планов запросов) не заменяется
+        return properties -> properties.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountInspector());
+    }
+}
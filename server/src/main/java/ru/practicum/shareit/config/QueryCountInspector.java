@@ -0,0 +1,15 @@
+package ru.practicum.shareit.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Передаёт каждый подготавливаемый Hibernate запрос в {@link QueryCounter} текущего потока, не меняя SQL.
+ */
+class QueryCountInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryCounter.record(sql);
+        return sql;
+    }
+}
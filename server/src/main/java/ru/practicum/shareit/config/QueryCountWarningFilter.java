@@ -0,0 +1,50 @@
+package ru.practicum.shareit.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Предупреждает, когда HTTP-запрос обращается к одной таблице больше допустимого числа раз:
+ * обычно это запрос к репозиторию на каждую строку списка (N+1).
+ */
+@Slf4j
+@Component
+public class QueryCountWarningFilter extends OncePerRequestFilter {
+
+    private final int maxStatementsPerTable;
+
+    public QueryCountWarningFilter(@Value("${shareit.query-guard.max-statements-per-table}") int maxStatementsPerTable) {
+        this.maxStatementsPerTable = maxStatementsPerTable;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (QueryCounter counter = QueryCounter.start()) {
+            chain.doFilter(request, response);
+            for (Map.Entry<String, Integer> entry : counter.getStatementsByTable().entrySet()) {
+                if (entry.getValue() > maxStatementsPerTable) {
+                    log.warn("Повторяющиеся запросы к таблице: method={} uri={} table={} statements={} limit={} total={}",
+                            request.getMethod(), uri(request), entry.getKey(), entry.getValue(),
+                            maxStatementsPerTable, counter.getTotal());
+                }
+            }
+        }
+    }
+
+    // Шаблон обработчика, чтобы предупреждения по разным id одного адреса группировались
+    private static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? request.getRequestURI() : pattern.toString();
+    }
+}
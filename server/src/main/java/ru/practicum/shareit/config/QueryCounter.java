@@ -0,0 +1,86 @@
+package ru.practicum.shareit.config;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Запросы к базе, выполненные текущим потоком с момента {@link #start()}, по таблицам.
+ * Счётчики могут быть вложенными: запрос учитывается во всех открытых счётчиках потока.
+ * Запросы передаёт {@link QueryCountInspector}. Запрос учитывается у каждой таблицы после FROM, JOIN, INTO
+ * или UPDATE, в том числе в подзапросах, по одному разу на таблицу: выборка бронирований с соединением
+ * вещей и пользователей считается и у bookings, и у items, и у users. Поэтому сумма по таблицам
+ * может быть больше общего числа запросов.
+ */
+public final class QueryCounter implements AutoCloseable {
+
+    private static final ThreadLocal<QueryCounter> CURRENT = new ThreadLocal<>();
+    private static final Pattern TABLE = Pattern.compile("\\b(?:from|join|into|update)\\s+\"?([\\w.]+)",
+            Pattern.CASE_INSENSITIVE);
+    // Запросы без таблицы, например получение следующего значения последовательности
+    private static final String NO_TABLE = "-";
+
+    private final QueryCounter parent;
+    private final Map<String, Integer> statementsByTable = new TreeMap<>();
+    private int total;
+
+    private QueryCounter(QueryCounter parent) {
+        this.parent = parent;
+    }
+
+    public static QueryCounter start() {
+        QueryCounter counter = new QueryCounter(CURRENT.get());
+        CURRENT.set(counter);
+        return counter;
+    }
+
+    static void record(String sql) {
+        QueryCounter counter = CURRENT.get();
+        if (counter == null) {
+            return;
+        }
+        Set<String> tables = new TreeSet<>();
+        Matcher matcher = TABLE.matcher(sql);
+        while (matcher.find()) {
+            tables.add(matcher.group(1).toLowerCase());
+        }
+        if (tables.isEmpty()) {
+            tables.add(NO_TABLE);
+        }
+        for (; counter != null; counter = counter.parent) {
+            for (String table : tables) {
+                counter.statementsByTable.merge(table, 1, Integer::sum);
+            }
+            counter.total++;
+        }
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public Map<String, Integer> getStatementsByTable() {
+        return Collections.unmodifiableMap(statementsByTable);
+    }
+
+    @Override
+    public void close() {
+        if (CURRENT.get() != this) {
+            return;
+        }
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return total + " " + statementsByTable;
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Фоновые задачи сервера (см. ItemBookingSummaryService.rollForward).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,12 +1,21 @@
 package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.item.dto.AvailabilityWindowDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoOutput;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -15,6 +24,7 @@ import java.util.List;
 public class ItemController {
 
     private final ItemService itemService;
+    private final ItemImportService itemImportService;
 
     @PostMapping
     public ItemDto addItem(
@@ -24,6 +34,15 @@ public class ItemController {
         return itemService.addItem(userId, itemDto);
     }
 
+    // Тело читается потоком, без разбора в список целиком
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ItemImportResultDto importItems(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            InputStream body) {
+
+        return itemImportService.importItems(userId, body);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(
             @RequestHeader("X-Sharer-User-Id") Long userId,
@@ -33,11 +52,17 @@ public class ItemController {
         return itemService.updateItem(userId, itemId, itemDto);
     }
 
+    // На совпавший If-None-Match — 304 без загрузки отзывов и бронирований
     @GetMapping("/{itemId}")
-    public ItemDtoOutput getItemById(
+    public ResponseEntity<ItemDtoOutput> getItemById(
             @RequestHeader("X-Sharer-User-Id") Long userId,
-            @PathVariable Long itemId) {
-        return itemService.getItemById(userId, itemId);  // <-- userId, itemId
+            @PathVariable Long itemId,
+            WebRequest request) {
+        String etag = itemService.getItemVersionTag(userId, itemId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(itemService.getItemById(userId, itemId));  // <-- userId, itemId
     }
 
     @GetMapping
@@ -49,12 +74,25 @@ public class ItemController {
 
     @GetMapping("/search")
     public List<ItemDto> searchItems(
-            @RequestParam String text) {
+            @RequestParam String text,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(required = false) Integer size) {
 
-        return itemService.searchItems(text);
+        return itemService.searchItems(text, from, size);
     }
 
 
+    // Свободные промежутки вещи; по умолчанию — на месяц вперёд от текущего момента
+    @GetMapping("/{itemId}/availability")
+    public List<AvailabilityWindowDto> getAvailability(
+            @PathVariable Long itemId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime windowStart = from != null ? from : LocalDateTime.now();
+        LocalDateTime windowEnd = to != null ? to : windowStart.plusMonths(1);
+        return itemService.getAvailability(itemId, windowStart, windowEnd);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(@RequestHeader("X-Sharer-User-Id") Long userId,
                                  @PathVariable Long itemId,
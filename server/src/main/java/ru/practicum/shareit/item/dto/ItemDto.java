@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Data
@@ -21,4 +22,9 @@ public class ItemDto {
     private List<CommentDto> comments;
 
     private Long requestId; // ← Добавь это поле
+
+    // Для выборки DTO прямо в запросе (SELECT new ...)
+    public ItemDto(Long id, String name, String description, Boolean available, Long requestId) {
+        this(id, name, description, available, new ArrayList<>(), requestId);
+    }
 }
\ No newline at end of file
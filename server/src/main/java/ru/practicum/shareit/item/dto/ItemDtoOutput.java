@@ -1,12 +1,14 @@
 package ru.practicum.shareit.item.dto;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Data
+@NoArgsConstructor
 public class ItemDtoOutput {
     private Long id;
     private String name;
@@ -16,4 +18,13 @@ public class ItemDtoOutput {
     private LocalDateTime lastBooking;
     private LocalDateTime nextBooking;
     private List<CommentDto> comments = new ArrayList<>();
+
+    // Для выборки DTO прямо в запросе; бронирования и комментарии заполняет сервис
+    public ItemDtoOutput(Long id, String name, String description, Boolean available, String ownerName) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.available = available;
+        this.ownerName = ownerName;
+    }
 }
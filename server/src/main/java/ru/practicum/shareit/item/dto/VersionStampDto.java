@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Сводка версий связанных строк для ETag: меняется, когда строку добавляют, удаляют или изменяют.
+ * Версии только растут, поэтому изменение любой строки меняет их сумму.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersionStampDto {
+    private Long count;
+    private Long maxId;
+    private Long versionSum;
+}
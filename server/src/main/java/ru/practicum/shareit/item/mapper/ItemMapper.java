@@ -58,7 +58,8 @@ public class ItemMapper {
                 itemDto.getDescription(),
                 itemDto.getAvailable(),
                 owner,
-                request
+                request,
+                null
         );
     }
 
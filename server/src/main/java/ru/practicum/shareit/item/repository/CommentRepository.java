@@ -1,11 +1,24 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.VersionStampDto;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByItemIdOrderByCreatedDesc(Long itemId);
-}
 
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author " +
+            "WHERE c.item.id IN :itemIds " +
+            "ORDER BY c.created DESC")
+    List<Comment> findByItemIdInOrderByCreatedDesc(@Param("itemIds") List<Long> itemIds);
+
+    // Отзывы вещи для ETag: новый отзыв и переименование автора меняют сводку
+    @Query("SELECT new ru.practicum.shareit.item.dto.VersionStampDto(COUNT(c), MAX(c.id), SUM(a.version)) " +
+            "FROM Comment c JOIN c.author a " +
+            "WHERE c.item.id = :itemId")
+    VersionStampDto findCommentVersions(@Param("itemId") Long itemId);
+}
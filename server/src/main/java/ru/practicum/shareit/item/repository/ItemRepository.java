@@ -1,30 +1,67 @@
 package ru.practicum.shareit.item.repository;
 
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoOutput;
+import ru.practicum.shareit.item.dto.VersionStampDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.RequestedItemDto;
 
+import java.util.Collection;
 import java.util.List;
 
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    // Столбцы ItemDto; request.id берётся из внешнего ключа без соединения с requests
+    String ITEM_VIEW = "new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, i.request.id)";
+
     boolean existsByOwnerIdAndNameIgnoreCase(Long ownerId, String name);
 
-    List<Item> findAllByOwnerId(Long ownerId);
+    @Query("SELECT i.id FROM Item i WHERE i.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(@Param("ownerId") Long ownerId);
+
+    // Названия из списка, уже занятые вещами владельца; названия передаются в нижнем регистре
+    @Query("SELECT LOWER(i.name) FROM Item i WHERE i.owner.id = :ownerId AND LOWER(i.name) IN :names")
+    List<String> findExistingNamesIgnoreCase(@Param("ownerId") Long ownerId, @Param("names") Collection<String> names);
 
-    @Query("SELECT i FROM Item i " +
+    // Вещи владельца сразу в виде DTO; бронирования и комментарии добавляет сервис
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemDtoOutput(i.id, i.name, i.description, i.available, o.name) " +
+            "FROM Item i JOIN i.owner o " +
+            "WHERE o.id = :ownerId " +
+            "ORDER BY i.id")
+    List<ItemDtoOutput> findDtosByOwnerId(@Param("ownerId") Long ownerId);
+
+    // Текст передаётся в нижнем регистре; LOWER(...) LIKE совпадает с выражением триграммных индексов
+    @Query("SELECT " + ITEM_VIEW + " FROM Item i " +
             "WHERE i.available = true " +
-            "AND (LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) " +
-            "OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%')))")
-    List<Item> findAvailableByText(@Param("text") String text);
+            "AND (LOWER(i.name) LIKE CONCAT('%', :text, '%') " +
+            "OR LOWER(i.description) LIKE CONCAT('%', :text, '%')) " +
+            "ORDER BY CASE " +
+            "WHEN LOWER(i.name) LIKE CONCAT(:text, '%') THEN 0 " +
+            "WHEN LOWER(i.name) LIKE CONCAT('%', :text, '%') THEN 1 " +
+            "ELSE 2 END, i.id")
+    List<ItemDto> findAvailableByText(@Param("text") String text, Pageable pageable);
 
+    @Query("SELECT " + ITEM_VIEW + " FROM Item i WHERE i.id IN :ids")
+    List<ItemDto> findDtosByIdIn(@Param("ids") List<Long> ids);
 
     List<Item> findByRequestId(Long requestId);
 
-    List<Item> findByRequestIdIn(List<Long> requestIds);
+    @Query("SELECT new ru.practicum.shareit.request.dto.RequestedItemDto(i.request.id, i.id, i.name, o.id, o.name) " +
+            "FROM Item i JOIN i.owner o " +
+            "WHERE i.request.id IN :requestIds")
+    List<RequestedItemDto> findRequestedItems(@Param("requestIds") List<Long> requestIds);
+
+    // Ответы на запрос для ETag: новая вещь, её изменение и переименование владельца меняют сводку
+    @Query("SELECT new ru.practicum.shareit.item.dto.VersionStampDto(COUNT(i), MAX(i.id), SUM(i.version + o.version)) " +
+            "FROM Item i JOIN i.owner o " +
+            "WHERE i.request.id = :requestId")
+    VersionStampDto findRequestedItemVersions(@Param("requestId") Long requestId);
 }
@@ -0,0 +1,240 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск по инвертированному индексу в памяти приложения.
+ * <p>
+ * Ключи индекса — все суффиксы слов из названия и описания доступных вещей, поэтому
+ * подстрока слова находится как префикс суффикса диапазонным запросом к отсортированной карте,
+ * а время поиска зависит от числа совпадений, а не от размера таблицы.
+ * Кандидаты проверяются по полному тексту, чтобы семантика совпадала с SQL-поиском.
+ * В базу данных уходит только запрос столбцов совпавших вещей до конца выбранной страницы по идентификаторам.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.backend", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+
+    private static final int RANK_NAME_PREFIX = 0;
+    private static final int RANK_NAME = 1;
+    private static final int RANK_DESCRIPTION = 2;
+    private static final int ID_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+
+    private final NavigableMap<String, Set<Long>> suffixIndex = new TreeMap<>();
+    private final Map<Long, IndexedItem> indexedItems = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void rebuild() {
+        List<Item> items = itemRepository.findAll();
+
+        lock.writeLock().lock();
+        try {
+            suffixIndex.clear();
+            indexedItems.clear();
+            items.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс построен: {} доступных вещей из {}", indexedItems.size(), items.size());
+    }
+
+    @Override
+    public List<ItemDto> search(String text, int from, Integer size) {
+        List<Long> ids = findIds(text.toLowerCase());
+        long wanted = size == null ? Long.MAX_VALUE : (long) from + size;
+
+        // Вещи удаляются каскадно вместе с владельцем, минуя сервис, а доступность может сменить другой экземпляр
+        // сервера. Такие записи отбрасываются до отсчёта from, как их не видит и SQL-поиск, поэтому загружаются
+        // все совпадения до конца страницы, а нехватка после отброшенных добирается следующей частью
+        List<ItemDto> matches = new ArrayList<>();
+        List<Long> staleIds = new ArrayList<>();
+        int next = 0;
+        while (matches.size() < wanted && next < ids.size()) {
+            int batchSize = (int) Math.min(Math.min(wanted - matches.size(), ID_BATCH_SIZE), ids.size() - next);
+            List<Long> batch = ids.subList(next, next + batchSize);
+            next += batchSize;
+
+            Map<Long, ItemDto> itemsById = itemRepository.findDtosByIdIn(batch).stream()
+                    .collect(Collectors.toMap(ItemDto::getId, item -> item));
+            for (Long id : batch) {
+                ItemDto item = itemsById.get(id);
+                if (item != null && Boolean.TRUE.equals(item.getAvailable())) {
+                    matches.add(item);
+                } else {
+                    staleIds.add(id);
+                }
+            }
+        }
+        if (!staleIds.isEmpty()) {
+            log.info("Из поискового индекса удаляются отсутствующие в базе или недоступные вещи: {}", staleIds);
+            staleIds.forEach(this::removeLocked);
+        }
+
+        return from >= matches.size() ? Collections.emptyList() : matches.subList(from, matches.size());
+    }
+
+    @Override
+    public void index(Item item) {
+        // Значения фиксируются сейчас, а в индекс попадают только после фиксации транзакции
+        Item snapshot = new Item(item.getId(), item.getName(), item.getDescription(), item.getAvailable(), null, null,
+                item.getVersion());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    putLocked(snapshot);
+                }
+            });
+        } else {
+            putLocked(snapshot);
+        }
+    }
+
+    private List<Long> findIds(String query) {
+        List<String> queryTokens = tokenize(query);
+
+        lock.readLock().lock();
+        try {
+            Collection<Long> candidates;
+            if (queryTokens.isEmpty()) {
+                // Запрос без букв и цифр (например, из одних знаков препинания) проверяется по всем вещам
+                candidates = indexedItems.keySet();
+            } else {
+                candidates = null;
+                for (String token : queryTokens) {
+                    Set<Long> matches = findByTokenSubstring(token);
+                    if (candidates == null) {
+                        candidates = matches;
+                    } else {
+                        candidates.retainAll(matches);
+                    }
+                    if (candidates.isEmpty()) {
+                        return Collections.emptyList();
+                    }
+                }
+            }
+
+            List<Long> ranked = new ArrayList<>();
+            Map<Long, Integer> ranks = new HashMap<>();
+            for (Long id : candidates) {
+                int rank = indexedItems.get(id).rank(query);
+                if (rank >= 0) {
+                    ranks.put(id, rank);
+                    ranked.add(id);
+                }
+            }
+            ranked.sort(Comparator.<Long>comparingInt(ranks::get).thenComparing(Comparator.naturalOrder()));
+            return ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<Long> findByTokenSubstring(String token) {
+        Set<Long> ids = new HashSet<>();
+        suffixIndex.subMap(token, true, token + Character.MAX_VALUE, false)
+                .values()
+                .forEach(ids::addAll);
+        return ids;
+    }
+
+    private void putLocked(Item item) {
+        lock.writeLock().lock();
+        try {
+            put(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            remove(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Item item) {
+        remove(item.getId());
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+
+        IndexedItem indexed = new IndexedItem(item.getName().toLowerCase(), item.getDescription().toLowerCase());
+        indexedItems.put(item.getId(), indexed);
+        for (String suffix : indexed.suffixes()) {
+            suffixIndex.computeIfAbsent(suffix, key -> new HashSet<>()).add(item.getId());
+        }
+    }
+
+    private void remove(Long itemId) {
+        IndexedItem indexed = indexedItems.remove(itemId);
+        if (indexed == null) {
+            return;
+        }
+        for (String suffix : indexed.suffixes()) {
+            Set<Long> ids = suffixIndex.get(suffix);
+            if (ids != null) {
+                ids.remove(itemId);
+                if (ids.isEmpty()) {
+                    suffixIndex.remove(suffix);
+                }
+            }
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        return Arrays.stream(text.split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private record IndexedItem(String name, String description) {
+
+        Set<String> suffixes() {
+            Set<String> suffixes = new HashSet<>();
+            for (String token : tokenize(name + " " + description)) {
+                for (int i = 0; i < token.length(); i++) {
+                    suffixes.add(token.substring(i));
+                }
+            }
+            return suffixes;
+        }
+
+        // Тот же порядок, что и в ItemRepository.findAvailableByText; -1 — совпадения нет
+        int rank(String query) {
+            if (name.startsWith(query)) {
+                return RANK_NAME_PREFIX;
+            }
+            if (name.contains(query)) {
+                return RANK_NAME;
+            }
+            if (description.contains(query)) {
+                return RANK_DESCRIPTION;
+            }
+            return -1;
+        }
+    }
+}
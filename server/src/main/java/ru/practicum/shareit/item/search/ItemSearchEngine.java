@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по подстроке в названии или описании.
+ * Результаты упорядочены по релевантности: сначала совпадения в начале названия,
+ * затем в названии, затем в описании.
+ */
+public interface ItemSearchEngine {
+
+    // Без size возвращаются все совпадения начиная с from
+    List<ItemDto> search(String text, int from, Integer size);
+
+    /**
+     * Сообщает о создании или изменении вещи. Движкам, которые ищут непосредственно в базе данных,
+     * реагировать не нужно.
+     */
+    default void index(Item item) {
+    }
+}
@@ -0,0 +1,157 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Импорт вещей владельца из потока JSON-записей: NDJSON (по записи в строке) или JSON-массив.
+ * Записи читаются потоком и сохраняются порциями: на порцию приходится один запрос проверки названий,
+ * один запрос запросов вещей и JDBC-батчи вставок с идентификаторами из последовательности.
+ * Записи с ошибками пропускаются и перечисляются в ответе; синтаксическая ошибка в потоке отменяет весь импорт.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemImportService {
+
+    static final int CHUNK_SIZE = 1000;
+
+    private static final int MAX_NAME_LENGTH = 255;
+
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemMapper itemMapper;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    @Transactional
+    public ItemImportResultDto importItems(Long userId, InputStream body) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь не найден");
+        }
+
+        ItemImportResultDto result = new ItemImportResultDto(0, new ArrayList<>());
+        // Названия, уже встретившиеся в этом импорте, в нижнем регистре
+        Set<String> importedNames = new HashSet<>();
+        List<ImportRecord> chunk = new ArrayList<>(CHUNK_SIZE);
+        long position = 0;
+        try (MappingIterator<ItemDto> records = objectMapper.readerFor(ItemDto.class).readValues(body)) {
+            while (records.hasNextValue()) {
+                ItemDto dto = records.nextValue();
+                position++;
+                String error = validate(dto);
+                if (error != null) {
+                    result.getRejected().add(new ItemImportErrorDto(position, dto.getName(), error));
+                } else if (!importedNames.add(dto.getName().toLowerCase())) {
+                    result.getRejected().add(new ItemImportErrorDto(position, dto.getName(),
+                            "Название повторяется в импорте"));
+                } else {
+                    chunk.add(new ImportRecord(position, dto));
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    writeChunk(userId, chunk, result);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new ValidationException("Некорректная запись импорта №" + (position + 1) + ": " + e.getMessage());
+        }
+        writeChunk(userId, chunk, result);
+        // Дубликаты в базе обнаруживаются при записи порции, позже ошибок разбора следующих записей
+        result.getRejected().sort(Comparator.comparingLong(ItemImportErrorDto::getPosition));
+
+        log.info("Импорт вещей пользователя id={}: сохранено {}, отклонено {}", userId, result.getImported(),
+                result.getRejected().size());
+        return result;
+    }
+
+    private void writeChunk(Long userId, List<ImportRecord> chunk, ItemImportResultDto result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Set<String> existingNames = new HashSet<>(itemRepository.findExistingNamesIgnoreCase(userId,
+                chunk.stream().map(record -> record.dto.getName().toLowerCase()).collect(Collectors.toSet())));
+
+        Set<Long> requestIds = chunk.stream()
+                .map(record -> record.dto.getRequestId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = requestIds.isEmpty() ? Map.of()
+                : itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        User owner = userRepository.getReferenceById(userId);
+        List<Item> items = new ArrayList<>(chunk.size());
+        for (ImportRecord record : chunk) {
+            ItemDto dto = record.dto;
+            if (existingNames.contains(dto.getName().toLowerCase())) {
+                result.getRejected().add(new ItemImportErrorDto(record.position, dto.getName(),
+                        "Вещь с таким именем уже существует"));
+                continue;
+            }
+            ItemRequest request = null;
+            if (dto.getRequestId() != null) {
+                request = requests.get(dto.getRequestId());
+                if (request == null) {
+                    result.getRejected().add(new ItemImportErrorDto(record.position, dto.getName(),
+                            "Запрос не найден: " + dto.getRequestId()));
+                    continue;
+                }
+            }
+            dto.setId(null);
+            items.add(itemMapper.toItem(dto, owner, request));
+        }
+
+        itemRepository.saveAll(items);
+        // Сброс отправляет вставки порции батчами; очистка не даёт контексту расти вместе с импортом
+        entityManager.flush();
+        entityManager.clear();
+        items.forEach(itemSearchEngine::index);
+        result.setImported(result.getImported() + items.size());
+    }
+
+    private static String validate(ItemDto dto) {
+        if (dto.getName() == null || dto.getName().isBlank()) {
+            return "Название не может быть пустым";
+        }
+        if (dto.getName().length() > MAX_NAME_LENGTH) {
+            return "Название длиннее " + MAX_NAME_LENGTH + " символов";
+        }
+        if (dto.getDescription() == null || dto.getDescription().isBlank()) {
+            return "Описание не может быть пустым";
+        }
+        if (dto.getAvailable() == null) {
+            return "Статус доступности должен быть указан";
+        }
+        return null;
+    }
+
+    private record ImportRecord(long position, ItemDto dto) {
+    }
+}
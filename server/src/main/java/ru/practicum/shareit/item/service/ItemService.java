@@ -1,9 +1,11 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.item.dto.AvailabilityWindowDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoOutput;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -14,9 +16,14 @@ public interface ItemService {
 
     ItemDtoOutput getItemById(Long itemId, Long userId);
 
+    // Версии вещи, владельца, отзывов и сводки бронирований для ETag ответа getItemById
+    String getItemVersionTag(Long userId, Long itemId);
+
     List<ItemDtoOutput> getItemsByOwner(Long ownerId);
 
-    List<ItemDto> searchItems(String text);
+    List<ItemDto> searchItems(String text, int from, Integer size);
 
     CommentDto addComment(Long userId, Long itemId, CommentDto commentDto);
+
+    List<AvailabilityWindowDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 }
\ No newline at end of file
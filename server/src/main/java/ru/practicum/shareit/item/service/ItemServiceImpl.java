@@ -1,25 +1,32 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.config.ETags;
 import ru.practicum.shareit.exception.DuplicatedDataException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.AvailabilityWindowDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoOutput;
+import ru.practicum.shareit.item.dto.VersionStampDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -31,6 +38,7 @@ import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed("shareit.service")
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
 
@@ -41,6 +49,8 @@ public class ItemServiceImpl implements ItemService {
     private final CommentMapper commentMapper;
     private final ItemMapper itemMapper;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemBookingSummaryService bookingSummaryService;
 
     @Transactional
     @Override
@@ -69,6 +79,7 @@ public class ItemServiceImpl implements ItemService {
         Item item = itemMapper.toItem(itemDto, owner, request);
 
         Item saved = itemRepository.save(item);
+        itemSearchEngine.index(saved);
         log.info("Вещь успешно добавлена с id={}", saved.getId());
 
         return itemMapper.toItemDto(saved);
@@ -102,6 +113,7 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item updated = itemRepository.save(item);
+        itemSearchEngine.index(updated);
         log.info("Вещь id={} успешно обновлена", updated.getId());
         return itemMapper.toItemDto(updated);
     }
@@ -119,15 +131,33 @@ public class ItemServiceImpl implements ItemService {
         LocalDateTime nextBookingTime = null;
 
         if (Objects.equals(item.getOwner().getId(), userId)) {
-            LocalDateTime now = LocalDateTime.now();
-            lastBookingTime = bookingRepository.findLastBookingTime(itemId, now);
-            nextBookingTime = bookingRepository.findNextBookingTime(itemId, now);
+            ItemBookingSummary summary = bookingSummaryService.getSummaries(List.of(itemId)).get(itemId);
+            if (summary != null) {
+                lastBookingTime = summary.getLastBooking();
+                nextBookingTime = summary.getNextBooking();
+            }
         }
 
 
         return itemMapper.toItemDtoOutput(item, comments, lastBookingTime, nextBookingTime);
     }
 
+    // Отзывы и бронирования не загружаются: их версии сводятся одним запросом и одной строкой сводки
+    @Transactional(readOnly = true)
+    @Override
+    public String getItemVersionTag(Long userId, Long itemId) {
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь с id: " + itemId + " не найдена."));
+        VersionStampDto comments = commentRepository.findCommentVersions(itemId);
+
+        boolean owner = Objects.equals(item.getOwner().getId(), userId);
+        ItemBookingSummary summary = owner ? bookingSummaryService.getSummaries(List.of(itemId)).get(itemId) : null;
+        return ETags.strong(item.getId(), item.getVersion(), item.getOwner().getVersion(), owner,
+                comments.getCount(), comments.getMaxId(), comments.getVersionSum(),
+                summary != null ? summary.getLastBooking() : null,
+                summary != null ? summary.getNextBooking() : null);
+    }
+
     @Transactional(readOnly = true)
     @Override
     public List<ItemDtoOutput> getItemsByOwner(Long ownerId) {
@@ -137,39 +167,50 @@ public class ItemServiceImpl implements ItemService {
             throw new NoSuchElementException("Пользователь не найден");
         }
 
-        List<Item> items = itemRepository.findAllByOwnerId(ownerId);
-        LocalDateTime now = LocalDateTime.now();
-
-        return items.stream()
-                .map(item -> {
-                    List<Comment> comments = commentRepository.findByItemIdOrderByCreatedDesc(item.getId());
-                    Optional<Booking> lastBooking = bookingRepository.findLastBookingEntity(item.getId(), now);
-                    Optional<Booking> nextBooking = bookingRepository.findNextBookingEntity(item.getId(), now);
-
-                    LocalDateTime lastBookingTime = lastBooking.map(Booking::getEnd).orElse(null);
-                    LocalDateTime nextBookingTime = nextBooking.map(Booking::getStart).orElse(null);
+        List<ItemDtoOutput> items = itemRepository.findDtosByOwnerId(ownerId);
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
 
-                    return itemMapper.toItemDtoOutput(item, comments, lastBookingTime, nextBookingTime);
-                })
+        List<Long> itemIds = items.stream()
+                .map(ItemDtoOutput::getId)
                 .collect(Collectors.toList());
+
+        // Комментарии и сводки бронирований загружаются одним запросом на все вещи владельца
+        Map<Long, List<Comment>> commentsByItemId = commentRepository.findByItemIdInOrderByCreatedDesc(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+        Map<Long, ItemBookingSummary> summaries = bookingSummaryService.getSummaries(itemIds);
+
+        items.forEach(item -> {
+            item.setComments(commentMapper.toDtoList(
+                    commentsByItemId.getOrDefault(item.getId(), Collections.emptyList())));
+            ItemBookingSummary summary = summaries.get(item.getId());
+            if (summary != null) {
+                item.setLastBooking(summary.getLastBooking());
+                item.setNextBooking(summary.getNextBooking());
+            }
+        });
+        return items;
     }
 
     @Transactional(readOnly = true)
     @Override
-    public List<ItemDto> searchItems(String text) {
-        log.info("Поиск вещей по тексту запроса: '{}'", text);
+    public List<ItemDto> searchItems(String text, int from, Integer size) {
+        log.info("Поиск вещей по тексту запроса: '{}', from={}, size={}", text, from, size);
 
         if (text == null || text.isBlank()) {
             log.info("Пустой текст поиска, возвращается пустой список");
             return Collections.emptyList();
         }
 
-        List<Item> items = itemRepository.findAvailableByText(text);
+        if (from < 0 || (size != null && size <= 0)) {
+            throw new ValidationException("Некорректные параметры страницы: from=" + from + ", size=" + size);
+        }
+
+        List<ItemDto> items = itemSearchEngine.search(text, from, size);
         log.info("По запросу '{}' найдено {} доступных вещей", text, items.size());
 
-        return items.stream()
-                .map(itemMapper::toItemDto)
-                .collect(Collectors.toList());
+        return items;
     }
 
     @Transactional
@@ -205,6 +246,38 @@ public class ItemServiceImpl implements ItemService {
 
         return commentMapper.toDto(saved);
     }
-}
 
+    @Transactional(readOnly = true)
+    @Override
+    public List<AvailabilityWindowDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Начало периода должно быть раньше конца: from=" + from + ", to=" + to);
+        }
+        itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь с id: " + itemId + " не найдена."));
+
+        // Прошедшее время забронировать нельзя, поэтому окна считаются с текущего момента
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime windowStart = from.isBefore(now) ? now : from;
+        if (!windowStart.isBefore(to)) {
+            return Collections.emptyList();
+        }
 
+        // Бронирования читаются из базы, а не из BookingIntervalIndex: подтверждения на других экземплярах
+        // сервера в индекс этого процесса не попадают
+        List<AvailabilityWindowDto> windows = new ArrayList<>();
+        LocalDateTime free = windowStart;
+        for (BookingIntervalDto booking : bookingRepository.findApprovedIntervalsBetween(itemId, windowStart, to)) {
+            if (booking.getStart().isAfter(free)) {
+                windows.add(new AvailabilityWindowDto(free, booking.getStart()));
+            }
+            if (booking.getEnd().isAfter(free)) {
+                free = booking.getEnd();
+            }
+        }
+        if (free.isBefore(to)) {
+            windows.add(new AvailabilityWindowDto(free, to));
+        }
+        return windows;
+    }
+}
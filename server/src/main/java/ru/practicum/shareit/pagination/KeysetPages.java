@@ -0,0 +1,28 @@
+package ru.practicum.shareit.pagination;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+public final class KeysetPages {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private KeysetPages() {
+    }
+
+    /**
+     * Ответ со страницей списка. Полная страница означает, что за ней могут быть ещё записи,
+     * и курсор на её последнюю запись передаётся в заголовке X-Next-Cursor.
+     * Без size список отдан целиком, и курсор не нужен.
+     */
+    public static <T> ResponseEntity<List<T>> withNextCursor(List<T> page, Integer size,
+                                                             Function<T, KeysetCursor> position) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (size != null && !page.isEmpty() && page.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, position.apply(page.get(page.size() - 1)).encode());
+        }
+        return response.body(page);
+    }
+}
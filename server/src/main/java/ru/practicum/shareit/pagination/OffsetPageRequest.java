@@ -0,0 +1,66 @@
+package ru.practicum.shareit.pagination;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Страница, заданная смещением в строках, а не номером: from не обязан быть кратен size.
+ * Порядок задаётся самим запросом, поэтому сортировка не передаётся.
+ */
+public record OffsetPageRequest(long offset, int size) implements Pageable {
+
+    // Без size — все строки начиная с from
+    public static Pageable of(int from, Integer size) {
+        if (size == null) {
+            return from == 0 ? Pageable.unpaged() : new OffsetPageRequest(from, Integer.MAX_VALUE);
+        }
+        return new OffsetPageRequest(from, size);
+    }
+
+    @Override
+    public int getPageNumber() {
+        return (int) Math.min(offset / size, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int getPageSize() {
+        return size;
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public Sort getSort() {
+        return Sort.unsorted();
+    }
+
+    // Без size страница занимает Integer.MAX_VALUE строк, поэтому смещение следующей ограничено сверху
+    @Override
+    public Pageable next() {
+        long nextOffset = offset > Long.MAX_VALUE - size ? Long.MAX_VALUE : offset + size;
+        return new OffsetPageRequest(nextOffset, size);
+    }
+
+    @Override
+    public Pageable previousOrFirst() {
+        return hasPrevious() ? new OffsetPageRequest(Math.max(0, offset - size), size) : first();
+    }
+
+    @Override
+    public Pageable first() {
+        return new OffsetPageRequest(0, size);
+    }
+
+    @Override
+    public Pageable withPage(int pageNumber) {
+        return new OffsetPageRequest((long) pageNumber * size, size);
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return offset > 0;
+    }
+}
@@ -2,13 +2,18 @@ package ru.practicum.shareit.request;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
 import java.util.List;
 
+import static ru.practicum.shareit.pagination.KeysetPages.withNextCursor;
+
 @RestController
 @RequestMapping("/requests")
 @RequiredArgsConstructor
@@ -29,16 +34,24 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                               @RequestParam(defaultValue = "0") int from,
-                                               @RequestParam(defaultValue = "10") int size) {
-        return requestService.getAllRequests(userId, from, size);
+    public ResponseEntity<List<ItemRequestDto>> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = "0") int from,
+                                                               @RequestParam(defaultValue = "10") int size) {
+        return withNextCursor(requestService.getAllRequests(userId, cursor, from, size), size,
+                request -> new KeysetCursor(request.getCreated(), request.getId()));
     }
 
+    // На совпавший If-None-Match — 304 без загрузки вещей, предложенных в ответ
     @GetMapping("/{requestId}")
-    public ItemRequestDto getRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                     @PathVariable Long requestId) {
-        return requestService.getRequestById(userId, requestId);
+    public ResponseEntity<ItemRequestDto> getRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                     @PathVariable Long requestId,
+                                                     WebRequest request) {
+        String etag = requestService.getRequestVersionTag(userId, requestId);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(requestService.getRequestById(userId, requestId));
     }
 }
 
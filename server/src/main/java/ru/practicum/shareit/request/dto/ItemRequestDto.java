@@ -16,4 +16,11 @@ public class ItemRequestDto {
     private String description;
     private LocalDateTime created;
     private List<ItemShortDto> items = new ArrayList<>();
+
+    // Для выборки DTO прямо в запросе; ответы на запрос заполняет сервис
+    public ItemRequestDto(Long id, String description, LocalDateTime created) {
+        this.id = id;
+        this.description = description;
+        this.created = created;
+    }
 }
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Вещь, добавленная в ответ на запрос, вместе с идентификатором этого запроса.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequestedItemDto {
+    private Long requestId;
+    private ItemShortDto item;
+
+    public RequestedItemDto(Long requestId, Long itemId, String itemName, Long ownerId, String ownerName) {
+        this(requestId, new ItemShortDto(itemId, itemName, ownerId, ownerName));
+    }
+}
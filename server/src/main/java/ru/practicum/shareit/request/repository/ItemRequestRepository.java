@@ -1,18 +1,30 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequest> findByRequesterIdOrderByCreatedDesc(Long requesterId);
+    // Списки запросов выбираются сразу в ItemRequestDto; ответы на запросы добавляет сервис
+    String REQUEST_VIEW = "SELECT new ru.practicum.shareit.request.dto.ItemRequestDto(r.id, r.description, r.created) " +
+            "FROM ItemRequest r ";
 
-    @Query("SELECT r FROM ItemRequest r WHERE r.requester.id <> :userId ORDER BY r.created DESC")
-    Page<ItemRequest> findAllExcludingUser(@Param("userId") Long userId, Pageable pageable);
+    @Query(REQUEST_VIEW + "WHERE r.requester.id = :requesterId ORDER BY r.created DESC")
+    List<ItemRequestDto> findDtosByRequesterId(@Param("requesterId") Long requesterId);
+
+    // Лента чужих запросов после курсора в порядке (created DESC, id DESC) без COUNT.
+    // Смещение в page ненулевое только у клиентов, которые листают по from без курсора
+    @Query(REQUEST_VIEW +
+            "WHERE r.requester.id <> :userId " +
+            "AND (r.created < :cursorCreated OR (r.created = :cursorCreated AND r.id < :cursorId)) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequestDto> findAllExcludingUser(@Param("userId") Long userId,
+            @Param("cursorCreated") LocalDateTime cursorCreated, @Param("cursorId") Long cursorId, Pageable page);
 
 }
\ No newline at end of file
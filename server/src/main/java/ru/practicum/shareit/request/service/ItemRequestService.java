@@ -9,7 +9,10 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> getOwnRequests(Long userId);
 
-    List<ItemRequestDto> getAllRequests(Long userId, int from, int size);
+    List<ItemRequestDto> getAllRequests(Long userId, String cursor, int from, int size);
 
     ItemRequestDto getRequestById(Long userId, Long requestId);
+
+    // Версии запроса и вещей, предложенных в ответ, для ETag ответа getRequestById
+    String getRequestVersionTag(Long userId, Long requestId);
 }
\ No newline at end of file
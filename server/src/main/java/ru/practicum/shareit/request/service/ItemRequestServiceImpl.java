@@ -1,14 +1,20 @@
 package ru.practicum.shareit.request.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.ETags;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.VersionStampDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemShortDto;
+import ru.practicum.shareit.request.dto.RequestedItemDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -20,6 +26,7 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("shareit.service")
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
 
@@ -28,6 +35,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRepository itemRepository;
     private final ItemRequestMapper mapper;
 
+    @Transactional
     @Override
     public ItemRequestDto addRequest(Long userId, ItemRequestDto dto) {
         User requester = userRepository.findById(userId)
@@ -39,24 +47,38 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return mapper.toDto(saved, List.of());
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<ItemRequestDto> getOwnRequests(Long userId) {
         checkUserExists(userId);
 
-        List<ItemRequest> requests = requestRepository.findByRequesterIdOrderByCreatedDesc(userId);
-        return mapRequestsWithItems(requests);
+        List<ItemRequestDto> requests = requestRepository.findDtosByRequesterId(userId);
+        return addItems(requests);
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public List<ItemRequestDto> getAllRequests(Long userId, int from, int size) {
+    public List<ItemRequestDto> getAllRequests(Long userId, String cursor, int from, int size) {
+        if (size <= 0) {
+            throw new ValidationException("Размер страницы должен быть положительным");
+        }
+        if (from < 0) {
+            throw new ValidationException("Смещение не может быть отрицательным");
+        }
+        // from — смещение для клиентов, которые ещё не листают курсором; вместе они задали бы разные страницы
+        if (cursor != null && from > 0) {
+            throw new ValidationException("Параметры cursor и from нельзя передавать вместе");
+        }
+        KeysetCursor position = KeysetCursor.decode(cursor);
         checkUserExists(userId);
 
-        Pageable pageable = PageRequest.of(from / size, size);
-        List<ItemRequest> requests = requestRepository.findAllExcludingUser(userId, pageable).getContent();
+        List<ItemRequestDto> requests = requestRepository.findAllExcludingUser(userId,
+                position.getTimestamp(), position.getId(), OffsetPageRequest.of(from, size));
 
-        return mapRequestsWithItems(requests);
+        return addItems(requests);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public ItemRequestDto getRequestById(Long userId, Long requestId) {
         checkUserExists(userId);
@@ -72,27 +94,35 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return mapper.toDto(request, itemDtos);
     }
 
-    private List<ItemRequestDto> mapRequestsWithItems(List<ItemRequest> requests) {
+    // Вещи, предложенные в ответ, не загружаются: их версии сводятся одним запросом
+    @Transactional(readOnly = true)
+    @Override
+    public String getRequestVersionTag(Long userId, Long requestId) {
+        checkUserExists(userId);
+
+        ItemRequest request = requestRepository.findById(requestId)
+                .orElseThrow(() -> new NotFoundException("Request not found: " + requestId));
+        VersionStampDto items = itemRepository.findRequestedItemVersions(requestId);
+        return ETags.strong(request.getId(), request.getVersion(), items.getCount(), items.getMaxId(),
+                items.getVersionSum());
+    }
+
+    private List<ItemRequestDto> addItems(List<ItemRequestDto> requests) {
+        if (requests.isEmpty()) {
+            return requests;
+        }
+
         List<Long> requestIds = requests.stream()
-                .map(ItemRequest::getId)
+                .map(ItemRequestDto::getId)
                 .collect(Collectors.toList());
 
-        // Получаем все айтемы, у которых request_id в списке requestIds
-        List<Item> items = itemRepository.findByRequestIdIn(requestIds);
-
-        // Фильтруем айтемы с null request, чтобы не было NPE
-        Map<Long, List<Item>> itemsByRequestId = items.stream()
-                .filter(item -> item.getRequest() != null)
-                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
-
-        return requests.stream()
-                .map(request -> {
-                    List<ItemShortDto> itemDtos = itemsByRequestId.getOrDefault(request.getId(), List.of()).stream()
-                            .map(mapper::toItemShortDto)
-                            .collect(Collectors.toList());
-                    return mapper.toDto(request, itemDtos);
-                })
-                .collect(Collectors.toList());
+        // Ответы на все запросы страницы одним запросом, вместе с именами владельцев
+        Map<Long, List<ItemShortDto>> itemsByRequestId = itemRepository.findRequestedItems(requestIds).stream()
+                .collect(Collectors.groupingBy(RequestedItemDto::getRequestId,
+                        Collectors.mapping(RequestedItemDto::getItem, Collectors.toList())));
+
+        requests.forEach(request -> request.setItems(itemsByRequestId.getOrDefault(request.getId(), List.of())));
+        return requests;
     }
 
 
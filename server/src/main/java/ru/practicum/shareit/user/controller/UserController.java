@@ -2,7 +2,9 @@ package ru.practicum.shareit.user.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -21,9 +23,14 @@ public class UserController {
         return userService.create(userDto);
     }
 
+    // На совпавший If-None-Match — 304 без сборки ответа
     @GetMapping("/{id}")
-    public UserDto getUser(@PathVariable Long id) {
-        return userService.getById(id);
+    public ResponseEntity<UserDto> getUser(@PathVariable Long id, WebRequest request) {
+        String etag = userService.getVersionTag(id);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(userService.getById(id));
     }
 
     @GetMapping
@@ -7,4 +7,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmailIgnoreCase(String email);
 
     boolean existsByEmailIgnoreCaseAndIdNot(String email, Long id);
+
+    // Проверка через findById обслуживается кэшем второго уровня, а не запросом count
+    @Override
+    default boolean existsById(Long id) {
+        return findById(id).isPresent();
+    }
 }
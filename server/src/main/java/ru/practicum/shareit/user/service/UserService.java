@@ -9,6 +9,9 @@ public interface UserService {
 
     UserDto getById(Long id);
 
+    // Версия пользователя для ETag ответа getById
+    String getVersionTag(Long id);
+
     List<UserDto> getAll();
 
     UserDto update(Long id, UserDto userDto);
@@ -1,10 +1,22 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.config.ETags;
 import ru.practicum.shareit.exception.DuplicatedDataException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -15,11 +27,17 @@ import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed("shareit.service")
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemBookingSummaryService bookingSummaryService;
+    private final BookingIntervalIndex bookingIntervalIndex;
 
 
     @Override
@@ -50,6 +68,13 @@ public class UserServiceImpl implements UserService {
         return userMapper.toUserDto(user);
     }
 
+    @Override
+    public String getVersionTag(Long id) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Пользователь с id " + id + " не найден"));
+        return ETags.strong(user.getId(), user.getVersion());
+    }
+
     @Override
     public List<UserDto> getAll() {
         log.info("Получение всех пользователей");
@@ -86,10 +111,40 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
         log.info("Удаление пользователя с id={}", id);
+        // Бронирования пользователя удаляются каскадно, и сводки по чужим вещам, которые он арендовал, устаревают
+        List<Long> bookedItemIds = bookingRepository.findApprovedItemIdsByBookerId(id);
+        List<Long> ownItemIds = itemRepository.findIdsByOwnerId(id);
         userRepository.deleteById(id);
+        // JPQL-запросы пересчёта не сбрасывают удаление пользователя сами, а без DELETE в базе каскад
+        // ещё не удалил его бронирования
+        userRepository.flush();
+        bookingSummaryService.refresh(bookedItemIds);
+
+        // Вещи пользователя и бронирования на них удаляются в базе каскадно, минуя Hibernate, поэтому кэш вещей
+        // и интервалы бронирований сбрасываются явно — после фиксации, чтобы до неё их не загрузили заново
+        afterCommit(() -> {
+            Cache cache = entityManagerFactory.getCache();
+            ownItemIds.forEach(itemId -> cache.evict(Item.class, itemId));
+            bookingIntervalIndex.evict(bookedItemIds);
+            bookingIntervalIndex.evict(ownItemIds);
+        });
         log.info("Пользователь с id={} удалён", id);
     }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
 }
 
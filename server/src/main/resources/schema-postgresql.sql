@@ -0,0 +1,64 @@
+-- Триграммный поиск по вещам (ItemRepository.findAvailableByText)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm
+    ON items USING gin (lower(name) gin_trgm_ops) WHERE is_available;
+
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm
+    ON items USING gin (lower(description) gin_trgm_ops) WHERE is_available;
+
+-- Индексы по выражениям, которых нет в H2
+
+-- Версия 1
+-- Проверка уникальности email без учёта регистра (UserRepository.existsByEmailIgnoreCase*)
+CREATE INDEX IF NOT EXISTS idx_users_email_lower ON users (lower(email));
+-- Проверка дубликата названия у владельца (ItemRepository.existsByOwnerIdAndNameIgnoreCase)
+CREATE INDEX IF NOT EXISTS idx_items_owner_name_lower ON items (owner_id, lower(name));
+
+-- Версия 2
+-- Подтверждённые бронирования одной вещи не пересекаются по времени (BookingIntervalIndex проверяет то же в памяти)
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- ADD CONSTRAINT не поддерживает IF NOT EXISTS; тело DO в одинарных кавычках, чтобы скрипт не делился по ';' внутри
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''ex_bookings_item_period'') THEN
+        ALTER TABLE bookings ADD CONSTRAINT ex_bookings_item_period
+            EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+            WHERE (status = ''APPROVED'');
+    END IF;
+END
+';
+
+-- Версия 3
+-- Столбец items.id переводится с IDENTITY на последовательность items_seq (Item, pooled-lo).
+-- Последовательность продолжает существующие идентификаторы; повторный запуск ничего не меняет
+DO '
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = ''items''
+                 AND column_name = ''id'' AND is_identity = ''YES'') THEN
+        ALTER TABLE items ALTER COLUMN id DROP IDENTITY;
+        PERFORM setval(''items_seq'', (SELECT COALESCE(MAX(id), 0) + 1 FROM items), false);
+        ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval(''items_seq'');
+    END IF;
+END
+';
+
+-- Версия 4
+-- Остальные таблицы переводятся с IDENTITY на свои последовательности так же, как items в версии 3
+DO '
+DECLARE
+    t TEXT;
+BEGIN
+    FOREACH t IN ARRAY ARRAY[''users'', ''requests'', ''bookings'', ''comments''] LOOP
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema() AND table_name = t
+                     AND column_name = ''id'' AND is_identity = ''YES'') THEN
+            EXECUTE format(''ALTER TABLE %I ALTER COLUMN id DROP IDENTITY'', t);
+            EXECUTE format(''SELECT setval(%L, (SELECT COALESCE(MAX(id), 0) + 1 FROM %I), false)'', t || ''_seq'', t);
+            EXECUTE format(''ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)'', t, t || ''_seq'');
+        END IF;
+    END LOOP;
+END
+';
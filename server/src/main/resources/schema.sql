@@ -55,3 +55,74 @@ CREATE TABLE IF NOT EXISTS comments
     CONSTRAINT fk_comments_user FOREIGN KEY (author_id) REFERENCES users (id) ON DELETE CASCADE
 );
 
+-- Сводка по бронированиям вещи (ItemBookingSummaryService)
+CREATE TABLE IF NOT EXISTS item_booking_summary
+(
+    item_id      BIGINT PRIMARY KEY,
+    last_booking TIMESTAMP WITHOUT TIME ZONE,
+    next_booking TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT fk_item_booking_summary_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE
+);
+
+
+
+-- Индексы под запросы репозиториев.
+-- Новые индексы добавляются в конец файла отдельным блоком с номером версии;
+-- IF NOT EXISTS позволяет применять файл к уже существующей базе.
+
+-- Версия 1
+-- Бронирования пользователя по дате начала (keyset-пагинация по start_date, id)
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+-- Бронирования пользователя в статусе WAITING/REJECTED
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC, id DESC);
+-- Последнее и ближайшее бронирование вещи, бронирования вещей владельца
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+-- Вещи владельца
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+-- Ответы на запросы
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+-- Отзывы к вещи по дате
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created DESC);
+-- Отзывы автора (каскадное удаление пользователя)
+CREATE INDEX IF NOT EXISTS idx_comments_author ON comments (author_id);
+-- Собственные запросы пользователя по дате
+CREATE INDEX IF NOT EXISTS idx_requests_requester_created ON requests (requester_id, created DESC);
+-- Лента чужих запросов по дате
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created DESC);
+
+-- Версия 2
+-- Лента чужих запросов: keyset-пагинация по (created, id) заменяет индекс только по дате
+CREATE INDEX IF NOT EXISTS idx_requests_created_id ON requests (created DESC, id DESC);
+DROP INDEX IF EXISTS idx_requests_created;
+
+-- Версия 3
+-- Сводки, которые пора продвигать (ItemBookingSummaryRepository.findItemIdsToRollForward)
+CREATE INDEX IF NOT EXISTS idx_item_booking_summary_next ON item_booking_summary (next_booking);
+-- Сводки для вещей, подтверждённые бронирования которых появились до таблицы сводок
+INSERT INTO item_booking_summary (item_id, last_booking, next_booking)
+SELECT b.item_id,
+       MAX(CASE WHEN b.start_date < LOCALTIMESTAMP THEN b.end_date END),
+       MIN(CASE WHEN b.start_date > LOCALTIMESTAMP THEN b.start_date END)
+FROM bookings b
+WHERE b.status = 'APPROVED'
+  AND NOT EXISTS (SELECT 1 FROM item_booking_summary s WHERE s.item_id = b.item_id)
+GROUP BY b.item_id;
+
+-- Версия 4
+-- Идентификаторы вещей из последовательности блоками по 50 (Item, pooled-lo); в PostgreSQL столбец
+-- переводится на неё в schema-postgresql.sql
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
+-- Версия 5
+-- Идентификаторы остальных сущностей тоже из последовательностей блоками по 50 (pooled-lo)
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
+-- Версия 6
+-- Версии строк: оптимистическая блокировка изменений и ETag ответов сервера
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE requests ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoInput;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.DuplicatedDataException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoOutput;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Одновременные подтверждения пересекающихся бронирований одной вещи: на каждый период
+ * претендуют несколько бронирований, и подтвердиться должно ровно одно.
+ */
+@SpringBootTest(classes = ShareItServer.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:booking-concurrency",
+        "spring.datasource.hikari.maximum-pool-size=16"
+})
+class BookingConcurrencyTest {
+
+    private static final int PERIODS = 20;
+    private static final int CONTENDERS_PER_PERIOD = 3;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentApprovals_shouldNeverDoubleBookItem() throws Exception {
+        UserDto owner = userService.create(new UserDto(null, "Владелец", "owner@mail.ru"));
+        ItemDto item = itemService.addItem(owner.getId(), new ItemDto(null, "Палатка", "Четырёхместная", true, null));
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+
+        // Соседние периоды стыкуются концом к началу и друг другу не мешают
+        List<Long> bookingIds = new ArrayList<>();
+        for (int period = 0; period < PERIODS; period++) {
+            for (int contender = 0; contender < CONTENDERS_PER_PERIOD; contender++) {
+                UserDto booker = userService.create(new UserDto(null, "Арендатор",
+                        "booker" + period + "_" + contender + "@mail.ru"));
+                bookingIds.add(bookingService.createBooking(booker.getId(), withPeriod(item.getId(),
+                        base.plusDays(period).plusHours(contender), base.plusDays(period + 1))).getId());
+            }
+        }
+        Collections.shuffle(bookingIds);
+
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long bookingId : bookingIds) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    bookingService.approveBooking(owner.getId(), bookingId, true);
+                    approved.incrementAndGet();
+                } catch (DuplicatedDataException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(PERIODS, approved.get());
+        assertEquals(PERIODS * (CONTENDERS_PER_PERIOD - 1), rejected.get());
+
+        List<Timestamp[]> periods = jdbcTemplate.query(
+                "SELECT start_date, end_date FROM bookings WHERE item_id = ? AND status = ? ORDER BY start_date",
+                (rs, rowNum) -> new Timestamp[]{rs.getTimestamp(1), rs.getTimestamp(2)},
+                item.getId(), BookingStatus.APPROVED.name());
+        assertEquals(PERIODS, periods.size());
+        for (int i = 1; i < periods.size(); i++) {
+            assertFalse(periods.get(i)[0].before(periods.get(i - 1)[1]),
+                    "Пересекаются подтверждённые бронирования " + (i - 1) + " и " + i);
+        }
+
+        // Сводка вещи пересчитывалась из разных транзакций и должна указывать на первый период
+        ItemDtoOutput ownerView = itemService.getItemById(owner.getId(), item.getId());
+        assertEquals(periods.get(0)[0].toLocalDateTime(), ownerView.getNextBooking());
+
+        UserDto lateBooker = userService.create(new UserDto(null, "Опоздавший", "late@mail.ru"));
+        assertThrows(DuplicatedDataException.class, () -> bookingService.createBooking(lateBooker.getId(),
+                withPeriod(item.getId(), base.plusHours(5), base.plusHours(6))));
+
+        BookingDto free = bookingService.createBooking(lateBooker.getId(), withPeriod(item.getId(),
+                base.plusDays(PERIODS), base.plusDays(PERIODS + 1)));
+        assertEquals(BookingStatus.WAITING, free.getStatus());
+    }
+
+    private static BookingDtoInput withPeriod(Long itemId, LocalDateTime start, LocalDateTime end) {
+        BookingDtoInput input = new BookingDtoInput();
+        input.setItemId(itemId);
+        input.setStart(start);
+        input.setEnd(end);
+        return input;
+    }
+}
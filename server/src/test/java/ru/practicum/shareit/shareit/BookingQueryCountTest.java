@@ -0,0 +1,220 @@
+package ru.practicum.shareit.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Число запросов к базе при выдаче списка бронирований не должно зависеть от длины списка:
+ * вещь, её владелец и арендатор приходят вместе с бронированием, а не ленивыми запросами в маппере.
+ * Пакетное рассмотрение бронирований тоже не зависит от размера пакета: чтение одним запросом, запись одним батчем.
+ * Новые бронирования получают идентификаторы блоками из последовательности, и их вставки тоже уходят батчами.
+ */
+@SpringBootTest(classes = ShareItServer.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:booking-queries",
+        // Ленивые загрузки не должны маскироваться попаданиями в кэш второго уровня
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        // Фоновый пересчёт сводок не должен попадать в подсчёт запросов
+        "shareit.booking-summary.roll-forward-cron=-"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingQueryCountTest {
+
+    // Пользователь 1 и владелец 3 с короткими списками, пользователь 2 и владелец 4 — с длинными
+    private static final long SMALL_BOOKER = 1L;
+    private static final long LARGE_BOOKER = 2L;
+    private static final long SMALL_OWNER = 3L;
+    private static final long LARGE_OWNER = 4L;
+    private static final int SMALL = 3;
+    private static final int LARGE = 60;
+    // Владелец вещей для пакетного рассмотрения и арендатор его бронирований
+    private static final long APPROVING_OWNER = 5L;
+    private static final long APPROVING_BOOKER = 6L;
+    private static final long SMALL_BATCH_ITEM = 1001L;
+    private static final long LARGE_BATCH_ITEM = 1002L;
+    private static final long INSERT_BATCH_ITEM = 1003L;
+    private static final List<String> STATUSES = List.of("WAITING", "APPROVED", "REJECTED");
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeAll
+    void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> users = new ArrayList<>();
+        for (long id = 1; id <= 6; id++) {
+            users.add(new Object[]{id, "user" + id, "user" + id + "@mail.ru"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", users);
+        jdbcTemplate.update("INSERT INTO requests (id, description, requester_id, created) VALUES (1, 'Нужна вещь', 1, ?)",
+                now);
+
+        seedBookings(SMALL_BOOKER, SMALL_OWNER, SMALL, 0, now);
+        seedBookings(LARGE_BOOKER, LARGE_OWNER, LARGE, SMALL, now);
+        seedWaitingBookings(SMALL_BATCH_ITEM, SMALL, now);
+        seedWaitingBookings(LARGE_BATCH_ITEM, LARGE, now);
+        jdbcTemplate.update("INSERT INTO items (id, name, description, is_available, owner_id) VALUES (?, ?, ?, ?, ?)",
+                INSERT_BATCH_ITEM, "Вещь " + INSERT_BATCH_ITEM, "Описание", true, APPROVING_OWNER);
+    }
+
+    @Test
+    void bookerLists_shouldUseOneQueryRegardlessOfSize() {
+        for (BookingState state : BookingState.values()) {
+            long small = countStatements(() -> bookingService.getUserBookings(SMALL_BOOKER, state.name(), null, LARGE));
+            long large = countStatements(() -> bookingService.getUserBookings(LARGE_BOOKER, state.name(), null, LARGE));
+
+            assertEquals(small, large, "Число запросов растёт со списком для состояния " + state);
+            assertEquals(1, large, "Лишние запросы для состояния " + state);
+        }
+    }
+
+    @Test
+    void ownerLists_shouldUseOneQueryRegardlessOfSize() {
+        for (BookingState state : BookingState.values()) {
+            long small = countStatements(() -> bookingService.getOwnerBookings(SMALL_OWNER, state.name(), null, LARGE));
+            long large = countStatements(() -> bookingService.getOwnerBookings(LARGE_OWNER, state.name(), null, LARGE));
+
+            assertEquals(small, large, "Число запросов растёт со списком для состояния " + state);
+            assertEquals(1, large, "Лишние запросы для состояния " + state);
+        }
+    }
+
+    @Test
+    void singleBooking_shouldBeLoadedWithOneQuery() {
+        long bookingId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM bookings WHERE booker_id = ?", Long.class,
+                LARGE_BOOKER);
+
+        assertEquals(1, countStatements(() -> List.of(bookingService.getBooking(LARGE_BOOKER, bookingId))));
+    }
+
+    @Test
+    void bulkApproval_shouldUseSameStatementsRegardlessOfSize() {
+        List<Long> small = waitingBookingIds(SMALL_BATCH_ITEM);
+        List<Long> large = waitingBookingIds(LARGE_BATCH_ITEM);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        bookingService.approveBookings(APPROVING_OWNER, small, true);
+        long smallStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        bookingService.approveBookings(APPROVING_OWNER, large, true);
+        long largeStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(LARGE, statistics.getEntityUpdateCount());
+        assertEquals(smallStatements, largeStatements, "Число запросов растёт с размером пакета");
+        assertTrue(waitingBookingIds(LARGE_BATCH_ITEM).isEmpty());
+    }
+
+    @Test
+    void bookingSaves_shouldBeSentInBatches() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime start = LocalDateTime.now().plusYears(1);
+            for (int i = 0; i < LARGE; i++) {
+                bookingRepository.save(new Booking(null, start.plusDays(i), start.plusDays(i).plusHours(2),
+                        itemRepository.getReferenceById(INSERT_BATCH_ITEM),
+                        userRepository.getReferenceById(APPROVING_BOOKER), BookingStatus.REJECTED, null));
+            }
+        });
+
+        // Два запроса к последовательности на 60 идентификаторов и два батча вставок вместо INSERT на бронирование
+        assertEquals(LARGE, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 4,
+                "Вставки не объединены в батчи: " + statistics.getPrepareStatementCount() + " запросов");
+        assertEquals(LARGE, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings WHERE item_id = ?",
+                Integer.class, INSERT_BATCH_ITEM));
+    }
+
+    // Прошедшие, текущие и будущие бронирования в статусах WAITING, APPROVED и REJECTED по очереди
+    private void seedBookings(long bookerId, long ownerId, int count, long firstItemId, LocalDateTime now) {
+        List<Object[]> items = new ArrayList<>();
+        List<Object[]> bookings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long itemId = firstItemId + i + 1;
+            // У каждой брони своя вещь, чтобы ленивые загрузки не попадали в уже загруженные сущности
+            items.add(new Object[]{itemId, "Вещь " + itemId, "Описание", true, ownerId, 1L});
+            LocalDateTime start = now.plusDays(i % 3 - 1).minusHours(1);
+            bookings.add(new Object[]{start, start.plusHours(2), itemId, bookerId, STATUSES.get(i % 3)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name, description, is_available, owner_id, request_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", items);
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+                "VALUES (?, ?, ?, ?, ?)", bookings);
+    }
+
+    // Ожидающие подтверждения бронирования одной вещи, идущие друг за другом без пересечений
+    private void seedWaitingBookings(long itemId, int count, LocalDateTime now) {
+        jdbcTemplate.update("INSERT INTO items (id, name, description, is_available, owner_id) VALUES (?, ?, ?, ?, ?)",
+                itemId, "Вещь " + itemId, "Описание", true, APPROVING_OWNER);
+        List<Object[]> bookings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = now.plusDays(i + 1);
+            bookings.add(new Object[]{start, start.plusHours(2), itemId, APPROVING_BOOKER, "WAITING"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+                "VALUES (?, ?, ?, ?, ?)", bookings);
+    }
+
+    private List<Long> waitingBookingIds(long itemId) {
+        return jdbcTemplate.queryForList("SELECT id FROM bookings WHERE item_id = ? AND status = 'WAITING' ORDER BY id",
+                Long.class, itemId);
+    }
+
+    private long countStatements(BookingQuery query) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<BookingDto> result = query.run();
+        long statements = statistics.getPrepareStatementCount();
+        assertFalse(result.isEmpty(), "Пустой список не проверяет загрузку связей");
+        return statements;
+    }
+
+    @FunctionalInterface
+    private interface BookingQuery {
+        List<BookingDto> run();
+    }
+}
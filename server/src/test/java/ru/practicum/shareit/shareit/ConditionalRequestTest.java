@@ -0,0 +1,112 @@
+package ru.practicum.shareit.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ETag ответа меняется вместе с любыми данными, которые в нём показаны, а повторное чтение
+ * с тем же ETag получает 304. Версии строк также защищают от потерянных параллельных изменений.
+ */
+@SpringBootTest(classes = ShareItServer.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:conditional-requests",
+        "shareit.booking-summary.roll-forward-cron=-"
+})
+@AutoConfigureMockMvc
+class ConditionalRequestTest {
+
+    private static final String HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void item_shouldBeNotModifiedUntilItOrItsOwnerChanges() throws Exception {
+        UserDto owner = userService.create(new UserDto(null, "Владелец", "etag-owner@mail.ru"));
+        UserDto viewer = userService.create(new UserDto(null, "Гость", "etag-viewer@mail.ru"));
+        ItemDto item = itemService.addItem(owner.getId(), new ItemDto(null, "Дрель", "Ударная", true, null, null));
+        String path = "/items/" + item.getId();
+
+        String etag = etag(path, owner.getId());
+        mockMvc.perform(get(path).header(HEADER, owner.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        // Владелец видит бронирования, остальные — нет, поэтому у них разные ответы
+        assertNotEquals(etag, etag(path, viewer.getId()));
+
+        itemService.updateItem(owner.getId(), item.getId(), new ItemDto(null, "Перфоратор", null, null, null, null));
+        String updated = etag(path, owner.getId());
+        assertNotEquals(etag, updated);
+
+        // Имя владельца есть в ответе
+        userService.update(owner.getId(), new UserDto(null, "Новый владелец", null));
+        assertNotEquals(updated, etag(path, owner.getId()));
+    }
+
+    @Test
+    void request_shouldChangeETagWhenItemIsOffered() throws Exception {
+        UserDto requester = userService.create(new UserDto(null, "Автор", "etag-requester@mail.ru"));
+        UserDto owner = userService.create(new UserDto(null, "Владелец", "etag-offerer@mail.ru"));
+        ItemRequestDto request = itemRequestService.addRequest(requester.getId(),
+                new ItemRequestDto(null, "Нужна лестница", null));
+        String path = "/requests/" + request.getId();
+
+        String etag = etag(path, requester.getId());
+        itemService.addItem(owner.getId(), new ItemDto(null, "Лестница", "Стремянка", true, null, request.getId()));
+
+        assertNotEquals(etag, etag(path, requester.getId()));
+    }
+
+    @Test
+    void user_shouldBeNotFoundWithoutETag() throws Exception {
+        mockMvc.perform(get("/users/999")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void staleUpdate_shouldBeRejected() {
+        UserDto owner = userService.create(new UserDto(null, "Владелец", "etag-locking@mail.ru"));
+        ItemDto item = itemService.addItem(owner.getId(), new ItemDto(null, "Пила", "Ручная", true, null, null));
+        Item stale = itemRepository.findById(item.getId()).orElseThrow();
+
+        itemService.updateItem(owner.getId(), item.getId(), new ItemDto(null, "Пила по дереву", null, null, null, null));
+        stale.setDescription("Изменение по устаревшей версии");
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> itemRepository.save(stale));
+        assertEquals("Ручная", itemRepository.findById(item.getId()).orElseThrow().getDescription());
+    }
+
+    private String etag(String path, long userId) throws Exception {
+        String etag = mockMvc.perform(get(path).header(HEADER, userId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+        return etag;
+    }
+}
@@ -0,0 +1,192 @@
+package ru.practicum.shareit.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoInput;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.config.EntityCacheConfig;
+import ru.practicum.shareit.item.dto.AvailabilityWindowDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoOutput;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = ShareItServer.class)
+class EntityCacheTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void userLookups_shouldBeServedFromCache() {
+        UserDto user = userService.create(userDto("cached"));
+        // Первое чтение загружает пользователя в кэш
+        userService.getById(user.getId());
+        statistics.clear();
+
+        userService.getById(user.getId());
+        bookingService.getUserBookings(user.getId(), "ALL", null, 10);
+
+        assertEquals(2, statistics.getDomainDataRegionStatistics(EntityCacheConfig.USERS_REGION).getHitCount());
+        // Только запрос списка бронирований; пользователь в базе не запрашивался
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertTrue(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tag("region", EntityCacheConfig.USERS_REGION)
+                .tag("result", "hit")
+                .functionCounter()
+                .count() >= 2);
+    }
+
+    @Test
+    void updatedEntities_shouldNotBeReadStale() {
+        UserDto user = userService.create(userDto("before"));
+        ItemDto item = itemService.addItem(user.getId(), itemDto("Дрель"));
+        userService.getById(user.getId());
+
+        userService.update(user.getId(), new UserDto(null, "after", null));
+        itemService.updateItem(user.getId(), item.getId(), new ItemDto(null, "Перфоратор", null, null, null, null));
+
+        assertEquals("after", userService.getById(user.getId()).getName());
+        assertEquals("Перфоратор", itemService.getItemById(user.getId(), item.getId()).getName());
+    }
+
+    @Test
+    void deleteUser_shouldEvictCascadeDeletedItems() {
+        UserDto user = userService.create(userDto("owner"));
+        ItemDto item = itemService.addItem(user.getId(), itemDto("Пила"));
+        UserDto other = userService.create(userDto("other"));
+        ItemDto otherItem = itemService.addItem(other.getId(), itemDto("Рубанок"));
+        assertTrue(itemRepository.findById(item.getId()).isPresent());
+        assertTrue(itemRepository.findById(otherItem.getId()).isPresent());
+
+        userService.delete(user.getId());
+
+        assertTrue(itemRepository.findById(item.getId()).isEmpty());
+        // Вещи других владельцев остаются в кэше
+        assertTrue(entityManagerFactory.getCache().contains(Item.class, otherItem.getId()));
+    }
+
+    @Test
+    void deleteUser_shouldDropBookingIntervalsOfOwnItems() {
+        UserDto owner = userService.create(userDto("owner"));
+        UserDto booker = userService.create(userDto("booker"));
+        ItemDto item = itemService.addItem(owner.getId(), itemDto("Лестница"));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        BookingDtoInput input = new BookingDtoInput();
+        input.setItemId(item.getId());
+        input.setStart(start);
+        input.setEnd(start.plusDays(1));
+        BookingDto booking = bookingService.createBooking(booker.getId(), input);
+        bookingService.approveBooking(owner.getId(), booking.getId(), true);
+        assertTrue(bookingIntervalIndex.hasConflict(item.getId(), start, start.plusHours(1)));
+
+        userService.delete(owner.getId());
+
+        assertFalse(bookingIntervalIndex.hasConflict(item.getId(), start, start.plusHours(1)));
+    }
+
+    @Test
+    void deleteBooker_shouldClearBookingsOfOwnersItem() {
+        UserDto owner = userService.create(userDto("owner"));
+        UserDto booker = userService.create(userDto("booker"));
+        ItemDto item = itemService.addItem(owner.getId(), itemDto("Тачка"));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        BookingDtoInput input = new BookingDtoInput();
+        input.setItemId(item.getId());
+        input.setStart(start);
+        input.setEnd(start.plusDays(1));
+        BookingDto booking = bookingService.createBooking(booker.getId(), input);
+        bookingService.approveBooking(owner.getId(), booking.getId(), true);
+        assertEquals(start, itemService.getItemById(owner.getId(), item.getId()).getNextBooking());
+
+        userService.delete(booker.getId());
+
+        ItemDtoOutput found = itemService.getItemById(owner.getId(), item.getId());
+        assertNull(found.getLastBooking());
+        assertNull(found.getNextBooking());
+        ItemDtoOutput owned = itemService.getItemsByOwner(owner.getId()).getFirst();
+        assertNull(owned.getLastBooking());
+        assertNull(owned.getNextBooking());
+    }
+
+    @Test
+    void availability_shouldSeeApprovalsMadeOutsideThisProcess() {
+        UserDto owner = userService.create(userDto("owner"));
+        UserDto booker = userService.create(userDto("booker"));
+        ItemDto item = itemService.addItem(owner.getId(), itemDto("Бетономешалка"));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        LocalDateTime to = start.plusDays(3);
+        BookingDtoInput input = new BookingDtoInput();
+        input.setItemId(item.getId());
+        input.setStart(start);
+        input.setEnd(start.plusDays(1));
+        BookingDto booking = bookingService.createBooking(booker.getId(), input);
+        // Индекс вещи уже загружен, как на экземпляре, который не подтверждал бронирование
+        assertFalse(bookingIntervalIndex.hasConflict(item.getId(), start, to));
+        assertEquals(List.of(new AvailabilityWindowDto(start, to)), itemService.getAvailability(item.getId(), start, to));
+
+        // Подтверждение на другом экземпляре сервера меняет только базу
+        Booking stored = bookingRepository.findById(booking.getId()).orElseThrow();
+        stored.setStatus(BookingStatus.APPROVED);
+        bookingRepository.saveAndFlush(stored);
+
+        assertEquals(List.of(new AvailabilityWindowDto(start.plusDays(1), to)),
+                itemService.getAvailability(item.getId(), start, to));
+    }
+
+    private static UserDto userDto(String name) {
+        return new UserDto(null, name, name + System.nanoTime() + "@mail.ru");
+    }
+
+    private static ItemDto itemDto(String name) {
+        return new ItemDto(null, name, "Описание", true, null, null);
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.service.ItemImportService;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Импорт вещей: записи с ошибками пропускаются, остальные вставляются батчами
+ * с идентификаторами из последовательности, а не по запросу на вещь.
+ */
+@SpringBootTest(classes = ShareItServer.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:item-import",
+        "shareit.booking-summary.roll-forward-cron=-"
+})
+class ItemImportTest {
+
+    private static final int RECORDS = 2500;
+
+    @Autowired
+    private ItemImportService itemImportService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void importItems_shouldInsertValidRecordsInBatches() {
+        UserDto owner = userService.create(new UserDto(null, "Магазин", "shop@mail.ru"));
+        itemService.addItem(owner.getId(), new ItemDto(null, "Вещь 7", "Уже в каталоге", true, null));
+
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 1; i <= RECORDS; i++) {
+            ndjson.append(record("Вещь " + i, "Описание " + i)).append('\n');
+        }
+        // Повтор названия из импорта, запись без описания и ссылка на несуществующий запрос
+        ndjson.append(record("ВЕЩЬ 1", "Повтор")).append('\n');
+        ndjson.append("{\"name\":\"Без описания\",\"available\":true}\n");
+        ndjson.append("{\"name\":\"По запросу\",\"description\":\"Ответ\",\"available\":true,\"requestId\":999}\n");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ItemImportResultDto result = itemImportService.importItems(owner.getId(), stream(ndjson.toString()));
+
+        assertEquals(RECORDS - 1, result.getImported());
+        assertEquals(List.of(
+                new ItemImportErrorDto(7, "Вещь 7", "Вещь с таким именем уже существует"),
+                new ItemImportErrorDto(RECORDS + 1, "ВЕЩЬ 1", "Название повторяется в импорте"),
+                new ItemImportErrorDto(RECORDS + 2, "Без описания", "Описание не может быть пустым"),
+                new ItemImportErrorDto(RECORDS + 3, "По запросу", "Запрос не найден: 999")), result.getRejected());
+        assertEquals(RECORDS, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items WHERE owner_id = ?",
+                Integer.class, owner.getId()));
+
+        // По запросу идентификаторов на блок из 50 вещей и по два запроса проверки на порцию,
+        // а не INSERT на каждую вещь
+        assertEquals(RECORDS - 1, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < RECORDS / 10,
+                "Вставки не объединены в батчи: " + statistics.getPrepareStatementCount() + " запросов");
+    }
+
+    @Test
+    void importItems_shouldAcceptJsonArray() {
+        UserDto owner = userService.create(new UserDto(null, "Прокат", "rent@mail.ru"));
+
+        ItemImportResultDto result = itemImportService.importItems(owner.getId(),
+                stream("[" + record("Палатка", "Двухместная") + "," + record("Спальник", "Зимний") + "]"));
+
+        assertEquals(2, result.getImported());
+        assertTrue(result.getRejected().isEmpty());
+    }
+
+    @Test
+    void importItems_whenRecordMalformed_thenImportsNothing() {
+        UserDto owner = userService.create(new UserDto(null, "Склад", "store@mail.ru"));
+
+        assertThrows(ValidationException.class, () -> itemImportService.importItems(owner.getId(),
+                stream(record("Лопата", "Штыковая") + "\n{\"name\":")));
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items WHERE owner_id = ?",
+                Integer.class, owner.getId()));
+    }
+
+    @Test
+    void importItems_whenUserNotFound_thenThrows() {
+        assertThrows(NotFoundException.class, () -> itemImportService.importItems(999L,
+                stream(record("Лопата", "Штыковая"))));
+    }
+
+    private static String record(String name, String description) {
+        return "{\"name\":\"" + name + "\",\"description\":\"" + description + "\",\"available\":true}";
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
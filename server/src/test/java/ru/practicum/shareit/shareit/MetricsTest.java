@@ -0,0 +1,72 @@
+package ru.practicum.shareit.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Время методов сервисов и запросы к базе за HTTP-запрос публикуются как метрики Micrometer,
+ * а превышение числа запросов к одной таблице попадает в журнал.
+ */
+@SpringBootTest(classes = ShareItServer.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:metrics",
+        // Пользователь из кэша второго уровня не даёт запросов к базе
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "shareit.booking-summary.roll-forward-cron=-",
+        // Любое обращение к таблице превышает порог
+        "shareit.query-guard.max-statements-per-table=0"
+})
+@AutoConfigureMockMvc
+@ExtendWith(OutputCaptureExtension.class)
+class MetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void request_shouldRecordServiceTimeAndStatements(CapturedOutput output) throws Exception {
+        UserDto user = userService.create(new UserDto(null, "Метрики", "metrics@mail.ru"));
+
+        mockMvc.perform(get("/users/{id}", user.getId())).andExpect(status().isOk());
+
+        assertEquals(1, meterRegistry.get("shareit.service")
+                .tag("class", UserServiceImpl.class.getName())
+                .tag("method", "getById")
+                .timer()
+                .count());
+        assertEquals(1, meterRegistry.get("shareit.jdbc.statements")
+                .tag("uri", "/users/{id}")
+                .summary()
+                .count());
+        assertTrue(meterRegistry.get("shareit.jdbc.statements")
+                .tag("uri", "/users/{id}")
+                .summary()
+                .totalAmount() >= 1);
+        assertEquals(1, meterRegistry.get("shareit.jdbc.time")
+                .tag("uri", "/users/{id}")
+                .timer()
+                .count());
+        assertTrue(output.getOut().contains("uri=/users/{id} table=users statements=1 limit=0"), output.getOut());
+    }
+}
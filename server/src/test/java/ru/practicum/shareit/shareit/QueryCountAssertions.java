@@ -0,0 +1,35 @@
+package ru.practicum.shareit.shareit;
+
+import ru.practicum.shareit.config.QueryCounter;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Проверка числа запросов к базе за вызов сервиса. Считаются запросы, подготовленные Hibernate
+ * в текущем потоке; попадания в кэш второго уровня запросов не дают.
+ */
+public final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    public static <T> T assertMaxStatements(int max, Supplier<T> call) {
+        try (QueryCounter counter = QueryCounter.start()) {
+            T result = call.get();
+            if (counter.getTotal() > max) {
+                fail("Ожидалось не больше " + max + " запросов, выполнено " + counter.getTotal()
+                        + " по таблицам: " + counter.getStatementsByTable());
+            }
+            return result;
+        }
+    }
+
+    public static void assertMaxStatements(int max, Runnable call) {
+        assertMaxStatements(max, () -> {
+            call.run();
+            return null;
+        });
+    }
+}
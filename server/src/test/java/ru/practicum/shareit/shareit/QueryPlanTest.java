@@ -0,0 +1,236 @@
+package ru.practicum.shareit.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверяет, что каждый запрос, объявленный в репозиториях, выполняется по индексу.
+ * Каждый метод вызывается на заполненной базе, перехваченный SQL прогоняется через EXPLAIN,
+ * и тест падает, если в плане есть полный просмотр таблицы.
+ */
+@SpringBootTest(classes = ShareItServer.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plan",
+        // Каждый вызов репозитория должен дойти до базы, поэтому кэш второго уровня выключен
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "shareit.booking-summary.roll-forward-cron=-",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.shareit.QueryPlanTest$RecordingStatementInspector"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    private static final List<Class<?>> REPOSITORIES = List.of(
+            BookingRepository.class,
+            CommentRepository.class,
+            ItemBookingSummaryRepository.class,
+            ItemRepository.class,
+            ItemRequestRepository.class,
+            UserRepository.class
+    );
+
+    // Запросы, которые в PostgreSQL обслуживаются индексами из schema-postgresql.sql, недоступными в H2
+    private static final Set<String> POSTGRES_ONLY = Set.of(
+            "ItemRepository.findAvailableByText",
+            "ItemRepository.existsByOwnerIdAndNameIgnoreCase",
+            "UserRepository.existsByEmailIgnoreCase",
+            "UserRepository.existsByEmailIgnoreCaseAndIdNot"
+    );
+
+    private static final Pattern FULL_INDEX_SCAN = Pattern.compile("/\\*\\s*PUBLIC\\.\\w+\\s*\\*/");
+
+    private static final int USERS = 200;
+    private static final int ITEMS_PER_USER = 5;
+    private static final int BOOKINGS_PER_ITEM = 4;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> requests = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        List<Object[]> summaries = new ArrayList<>();
+
+        long itemId = 0;
+        for (long userId = 1; userId <= USERS; userId++) {
+            users.add(new Object[]{userId, "user" + userId, "user" + userId + "@mail.ru"});
+            requests.add(new Object[]{userId, "Нужна вещь " + userId, userId, now.minusHours(userId)});
+            for (int i = 0; i < ITEMS_PER_USER; i++) {
+                itemId++;
+                items.add(new Object[]{itemId, "Вещь " + itemId, "Описание " + itemId, i % 2 == 0, userId,
+                        i == 0 ? userId : null});
+                for (int b = 0; b < BOOKINGS_PER_ITEM; b++) {
+                    long bookerId = (userId + b) % USERS + 1;
+                    LocalDateTime start = now.plusDays(b * 3L - 5);
+                    bookings.add(new Object[]{start, start.plusDays(2), itemId, bookerId,
+                            BookingStatus.values()[b % BookingStatus.values().length].name()});
+                }
+                comments.add(new Object[]{"Отзыв " + itemId, itemId, userId % USERS + 1, now.minusDays(1)});
+                summaries.add(new Object[]{itemId, now.minusDays(3), now.plusDays(itemId % 7 - 3)});
+            }
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO requests (id, description, requester_id, created) VALUES (?, ?, ?, ?)",
+                requests);
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name, description, is_available, owner_id, request_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", items);
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+                "VALUES (?, ?, ?, ?, ?)", bookings);
+        jdbcTemplate.batchUpdate("INSERT INTO comments (text, item_id, author_id, created) VALUES (?, ?, ?, ?)",
+                comments);
+        jdbcTemplate.batchUpdate("INSERT INTO item_booking_summary (item_id, last_booking, next_booking) " +
+                "VALUES (?, ?, ?)", summaries);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void everyRepositoryQueryUsesIndex() throws Exception {
+        List<String> failures = new ArrayList<>();
+        int checked = 0;
+
+        for (Class<?> repositoryType : REPOSITORIES) {
+            Object repository = context.getBean(repositoryType);
+            for (Method method : repositoryType.getDeclaredMethods()) {
+                String name = repositoryType.getSimpleName() + "." + method.getName();
+                if (method.isBridge() || POSTGRES_ONLY.contains(name)) {
+                    continue;
+                }
+
+                RecordingStatementInspector.STATEMENTS.clear();
+                // Запросы с блокировкой строк выполняются только внутри транзакции
+                transactionTemplate.executeWithoutResult(status -> invoke(repository, method));
+                assertFalse(RecordingStatementInspector.STATEMENTS.isEmpty(), name + " не выполнил ни одного запроса");
+
+                for (String sql : RecordingStatementInspector.STATEMENTS) {
+                    String plan = explain(sql);
+                    if (isFullScan(plan)) {
+                        failures.add(name + ":\n" + plan);
+                    }
+                    checked++;
+                }
+            }
+        }
+
+        assertTrue(checked > 0, "Не проверено ни одного запроса");
+        assertTrue(failures.isEmpty(), "Запросы с полным просмотром таблицы:\n" + String.join("\n\n", failures));
+    }
+
+    private static void invoke(Object repository, Method method) {
+        try {
+            method.invoke(repository, sampleArguments(method));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Полный просмотр таблицы или индекса без условия; просмотр индекса ради сортировки с LIMIT допустим
+    private static boolean isFullScan(String plan) {
+        return plan.contains("tableScan")
+                || (FULL_INDEX_SCAN.matcher(plan).find() && !plan.contains("index sorted"));
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1));
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+
+    private static Object[] sampleArguments(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        Object[] arguments = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            arguments[i] = sampleArgument(types[i], method);
+        }
+        return arguments;
+    }
+
+    private static Object sampleArgument(Class<?> type, Method method) {
+        if (type == Long.class) {
+            return 1L;
+        }
+        if (type == String.class) {
+            return "вещь";
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.now();
+        }
+        if (type == List.class || type == Collection.class) {
+            return List.of(1L, 2L, 3L);
+        }
+        if (type == BookingStatus.class) {
+            return BookingStatus.APPROVED;
+        }
+        if (type == Pageable.class) {
+            return PageRequest.of(0, 10);
+        }
+        if (type == Limit.class) {
+            return Limit.of(10);
+        }
+        throw new IllegalArgumentException("Нет тестового значения для параметра " + type.getSimpleName()
+                + " метода " + method);
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoInput;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.config.QueryCounter;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoOutput;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.practicum.shareit.shareit.QueryCountAssertions.assertMaxStatements;
+
+/**
+ * Списки, которые выбираются сразу в DTO, содержат те же данные, что и при отображении сущностей,
+ * и загружаются фиксированным числом запросов, а не запросом на строку.
+ */
+@SpringBootTest(classes = ShareItServer.class)
+class ReadProjectionTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Test
+    void listEndpoints_shouldReturnFullDtos() {
+        UserDto owner = userService.create(new UserDto(null, "Владелец", "owner" + System.nanoTime() + "@mail.ru"));
+        UserDto booker = userService.create(new UserDto(null, "Арендатор", "booker" + System.nanoTime() + "@mail.ru"));
+        ItemRequestDto request = itemRequestService.addRequest(booker.getId(),
+                new ItemRequestDto(null, "Нужен рубанок", null));
+        String name = "Рубанок" + System.nanoTime();
+        ItemDto requested = itemService.addItem(owner.getId(),
+                new ItemDto(null, name, "По запросу", true, request.getId()));
+        ItemDto plain = itemService.addItem(owner.getId(),
+                new ItemDto(null, name + " малый", "Без запроса", true, null));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        BookingDtoInput bookingInput = new BookingDtoInput();
+        bookingInput.setItemId(requested.getId());
+        bookingInput.setStart(start);
+        bookingInput.setEnd(start.plusDays(1));
+        BookingDto created = bookingService.createBooking(booker.getId(), bookingInput);
+        bookingService.approveBooking(owner.getId(), created.getId(), true);
+
+        List<BookingDto> bookings = assertMaxStatements(1,
+                () -> bookingService.getUserBookings(booker.getId(), "ALL", null, 10));
+        assertEquals(1, bookings.size());
+        assertEquals(booker, bookings.get(0).getBooker());
+        assertEquals(requested.getId(), bookings.get(0).getItem().getId());
+        assertEquals(name, bookings.get(0).getItem().getName());
+        assertEquals(request.getId(), bookings.get(0).getItem().getRequestId());
+        assertEquals(start, bookings.get(0).getStart());
+        assertEquals(bookings, bookingService.getOwnerBookings(owner.getId(), "ALL", null, 10));
+        assertEquals(bookings, bookingService.getUserBookings(booker.getId(), "ALL", null, null));
+        // Один запрос с соединением учитывается у каждой таблицы, которую он читает
+        try (QueryCounter counter = QueryCounter.start()) {
+            bookingService.getOwnerBookings(owner.getId(), "ALL", null, 10);
+            assertEquals(1, counter.getTotal());
+            assertEquals(Map.of("bookings", 1, "items", 1, "users", 1), counter.getStatementsByTable());
+        }
+
+        // Вещи, их отзывы и сводки бронирований; владелец проверяется по кэшу или одним запросом
+        List<ItemDtoOutput> ownerItems = assertMaxStatements(4, () -> itemService.getItemsByOwner(owner.getId()));
+        assertEquals(List.of(requested.getId(), plain.getId()), ownerItems.stream().map(ItemDtoOutput::getId).toList());
+        assertEquals("Владелец", ownerItems.get(0).getOwnerName());
+        assertEquals(start, ownerItems.get(0).getNextBooking());
+
+        List<ItemDto> found = itemService.searchItems(name.toUpperCase(), 0, 10);
+        assertEquals(List.of(requested.getId(), plain.getId()), found.stream().map(ItemDto::getId).toList());
+        assertEquals(request.getId(), found.get(0).getRequestId());
+        assertNull(found.get(1).getRequestId());
+        // Смещение не кратно размеру страницы, а без size возвращаются все совпадения
+        assertEquals(List.of(plain.getId()), itemService.searchItems(name, 1, 2).stream().map(ItemDto::getId).toList());
+        assertEquals(found, itemService.searchItems(name, 0, null));
+
+        ItemRequestDto own = assertMaxStatements(3, () -> itemRequestService.getOwnRequests(booker.getId())).get(0);
+        assertEquals(request.getId(), own.getId());
+        assertEquals("Нужен рубанок", own.getDescription());
+        assertEquals(1, own.getItems().size());
+        assertEquals(requested.getId(), own.getItems().get(0).getId());
+        assertEquals("Владелец", own.getItems().get(0).getOwnerName());
+        List<ItemRequestDto> feed = itemRequestService.getAllRequests(owner.getId(), null, 0, 1000);
+        assertTrue(feed.contains(own));
+        // Без курсора from задаёт смещение в той же ленте
+        assertEquals(feed.subList(1, feed.size()), itemRequestService.getAllRequests(owner.getId(), null, 1, 1000));
+    }
+}
@@ -9,17 +9,22 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPages;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -87,6 +92,24 @@ public class BookingControllerTest {
 
     @Test
     @Order(3)
+    @DisplayName("BookingController_approveBookings")
+    void testApproveBookings() throws Exception {
+        when(bookingService.approveBookings(1L, List.of(1L, 2L), true)).thenReturn(List.of(
+                new BookingApprovalResultDto(1L, BookingStatus.APPROVED, null),
+                new BookingApprovalResultDto(2L, BookingStatus.APPROVED, null)));
+
+        mockMvc.perform(patch("/bookings")
+                        .header(HEADER, 1L)
+                        .param("approved", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"bookingIds\":[1,2]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].bookingId").value(2))
+                .andExpect(jsonPath("$[1].status").value("APPROVED"));
+    }
+
+    @Test
+    @Order(4)
     @DisplayName("BookingController_getBookingById")
     void testGetBookingById() throws Exception {
         when(bookingService.getBooking(anyLong(), anyLong()))
@@ -99,30 +122,36 @@ public class BookingControllerTest {
     }
 
     @Test
-    @Order(4)
+    @Order(5)
     @DisplayName("BookingController_getUserBookings")
     void testGetUserBookings() throws Exception {
-        when(bookingService.getUserBookings(anyLong(), anyString()))
+        when(bookingService.getUserBookings(anyLong(), anyString(), isNull(), isNull()))
                 .thenReturn(Collections.singletonList(bookingDtoOutput));
 
         mockMvc.perform(get("/bookings")
                         .header(HEADER, 1L)
                         .param("state", "ALL"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(KeysetPages.NEXT_CURSOR_HEADER))
                 .andExpect(jsonPath("$[0].id").value(1));
     }
 
     @Test
-    @Order(5)
+    @Order(6)
     @DisplayName("BookingController_getOwnerBookings")
     void testGetOwnerBookings() throws Exception {
-        when(bookingService.getOwnerBookings(anyLong(), anyString()))
+        when(bookingService.getOwnerBookings(anyLong(), anyString(), isNull(), eq(1)))
                 .thenReturn(Collections.singletonList(bookingDtoOutput));
 
+        bookingDtoOutput.setStart(LocalDateTime.of(2025, 1, 1, 12, 0));
+
         mockMvc.perform(get("/bookings/owner")
                         .header(HEADER, 1L)
-                        .param("state", "ALL"))
+                        .param("state", "ALL")
+                        .param("size", "1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string(KeysetPages.NEXT_CURSOR_HEADER,
+                        new KeysetCursor(bookingDtoOutput.getStart(), bookingDtoOutput.getId()).encode()))
                 .andExpect(jsonPath("$[0].id").value(1));
     }
 }
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.exception.DuplicatedDataException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+
+    private static final Long ITEM_ID = 1L;
+
+    private final LocalDateTime base = LocalDateTime.now().plusDays(10).withNano(0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @InjectMocks
+    private BookingIntervalIndex index;
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void hasConflict_shouldDetectOverlapWithApprovedBooking() {
+        when(bookingRepository.findApprovedIntervals(eq(ITEM_ID), any(LocalDateTime.class)))
+                .thenReturn(List.of(new BookingIntervalDto(1L, base, base.plusDays(2))));
+
+        assertTrue(index.hasConflict(ITEM_ID, base.plusDays(1), base.plusDays(3)));
+        assertTrue(index.hasConflict(ITEM_ID, base.minusDays(1), base.plusDays(1)));
+        assertTrue(index.hasConflict(ITEM_ID, base.plusHours(1), base.plusHours(2)));
+        assertFalse(index.hasConflict(ITEM_ID, base.plusDays(2), base.plusDays(3)));
+        assertFalse(index.hasConflict(ITEM_ID, base.minusDays(1), base));
+
+        verify(bookingRepository, times(1)).findApprovedIntervals(eq(ITEM_ID), any(LocalDateTime.class));
+        verify(bookingRepository, never()).existsApprovedOverlap(any(), any(), any());
+    }
+
+    @Test
+    void reserve_shouldRejectSecondOverlappingBooking() {
+        index.reserve(ITEM_ID, 1L, base, base.plusDays(2));
+
+        DuplicatedDataException ex = assertThrows(DuplicatedDataException.class,
+                () -> index.reserve(ITEM_ID, 2L, base.plusDays(1), base.plusDays(3)));
+        assertEquals("Вещь уже забронирована на это время", ex.getMessage());
+
+        index.reserve(ITEM_ID, 3L, base.plusDays(2), base.plusDays(3));
+        assertTrue(index.hasConflict(ITEM_ID, base.plusDays(2).plusHours(1), base.plusDays(4)));
+    }
+
+    @Test
+    void reserve_whenTransactionRolledBack_thenReleasesInterval() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        index.reserve(ITEM_ID, 1L, base, base.plusDays(2));
+        assertTrue(index.hasConflict(ITEM_ID, base, base.plusDays(1)));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertFalse(index.hasConflict(ITEM_ID, base, base.plusDays(1)));
+    }
+
+    @Test
+    void hasConflict_whenIntervalStartsInPast_thenChecksDatabase() {
+        LocalDateTime start = LocalDateTime.now().minusDays(5);
+        when(bookingRepository.existsApprovedOverlap(ITEM_ID, start, start.plusDays(1))).thenReturn(true);
+
+        assertTrue(index.hasConflict(ITEM_ID, start, start.plusDays(1)));
+    }
+
+    @Test
+    void evict_shouldReloadIntervalsFromDatabase() {
+        index.reserve(ITEM_ID, 1L, base, base.plusDays(2));
+
+        index.evict(List.of(ITEM_ID));
+
+        assertFalse(index.hasConflict(ITEM_ID, base, base.plusDays(1)));
+        verify(bookingRepository, times(2)).findApprovedIntervals(eq(ITEM_ID), any(LocalDateTime.class));
+    }
+}
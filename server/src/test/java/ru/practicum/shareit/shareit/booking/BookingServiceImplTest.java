@@ -6,26 +6,34 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+import ru.practicum.shareit.exception.DuplicatedDataException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 
@@ -40,6 +48,10 @@ class BookingServiceImplTest {
     private ItemRepository itemRepository;
     @Mock
     private BookingMapper bookingMapper;
+    @Mock
+    private ItemBookingSummaryService bookingSummaryService;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
 
     @InjectMocks
     private BookingServiceImpl bookingService;
@@ -116,6 +128,18 @@ class BookingServiceImplTest {
         assertEquals("Вещь недоступна для бронирования", ex.getMessage());
     }
 
+    @Test
+    void createBooking_shouldThrowDuplicatedDataException_ifPeriodTaken() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingIntervalIndex.hasConflict(item.getId(), booking.getStart(), booking.getEnd())).thenReturn(true);
+
+        DuplicatedDataException ex = assertThrows(DuplicatedDataException.class, () ->
+                bookingService.createBooking(1L, bookingDtoInput));
+        assertEquals("Вещь уже забронирована на это время", ex.getMessage());
+        verify(bookingRepository, never()).save(any());
+    }
+
 
     @Test
     void approveBooking_shouldReturnApprovedBookingDto() {
@@ -131,12 +155,44 @@ class BookingServiceImplTest {
         approvedDto.setStatus(BookingStatus.APPROVED);
 
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any())).thenReturn(approvedBooking);
+        when(bookingRepository.saveAndFlush(any())).thenReturn(approvedBooking);
         when(bookingMapper.toDto(any())).thenReturn(approvedDto);
 
         BookingDto result = bookingService.approveBooking(1L, 1L, true);
 
         assertEquals(BookingStatus.APPROVED, result.getStatus());
+        verify(bookingIntervalIndex).reserve(item.getId(), booking.getId(), booking.getStart(), booking.getEnd());
+        verify(bookingSummaryService).refresh(List.of(item.getId()));
+    }
+
+    @Test
+    void approveBooking_shouldThrowDuplicatedDataException_ifPeriodTaken() {
+        booking.setStatus(BookingStatus.WAITING);
+        item.getOwner().setId(1L);
+
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        doThrow(new DuplicatedDataException("Вещь уже забронирована на это время")).when(bookingIntervalIndex)
+                .reserve(item.getId(), booking.getId(), booking.getStart(), booking.getEnd());
+
+        assertThrows(DuplicatedDataException.class, () -> bookingService.approveBooking(1L, 1L, true));
+
+        assertEquals(BookingStatus.WAITING, booking.getStatus());
+        verify(bookingRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(bookingSummaryService);
+    }
+
+    @Test
+    void approveBooking_whenRejected_shouldNotRefreshSummary() {
+        booking.setStatus(BookingStatus.WAITING);
+        item.getOwner().setId(1L);
+
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.saveAndFlush(booking)).thenReturn(booking);
+
+        bookingService.approveBooking(1L, 1L, false);
+
+        assertEquals(BookingStatus.REJECTED, booking.getStatus());
+        verifyNoInteractions(bookingSummaryService, bookingIntervalIndex);
     }
 
     @Test
@@ -163,6 +219,67 @@ class BookingServiceImplTest {
         assertEquals("Бронирование уже рассмотрено", ex.getMessage());
     }
 
+    @Test
+    void approveBookings_shouldReportResultForEachBooking() {
+        item.getOwner().setId(1L);
+
+        Booking taken = new Booking();
+        taken.setId(2L);
+        taken.setItem(item);
+        taken.setStatus(BookingStatus.WAITING);
+        taken.setStart(booking.getStart());
+        taken.setEnd(booking.getEnd());
+
+        Booking processed = new Booking();
+        processed.setId(3L);
+        processed.setItem(item);
+        processed.setStatus(BookingStatus.REJECTED);
+
+        when(bookingRepository.findAllWithItemByIdIn(any())).thenReturn(List.of(booking, taken, processed));
+        doNothing().doThrow(new DuplicatedDataException("Вещь уже забронирована на это время"))
+                .when(bookingIntervalIndex).reserve(eq(item.getId()), anyLong(), any(), any());
+
+        List<BookingApprovalResultDto> results = bookingService.approveBookings(1L, List.of(1L, 2L, 3L, 4L, 1L), true);
+
+        assertEquals(List.of(
+                new BookingApprovalResultDto(1L, BookingStatus.APPROVED, null),
+                new BookingApprovalResultDto(2L, BookingStatus.WAITING, "Вещь уже забронирована на это время"),
+                new BookingApprovalResultDto(3L, BookingStatus.REJECTED, "Бронирование уже рассмотрено"),
+                new BookingApprovalResultDto(4L, null, "Бронирование не найдено")), results);
+        assertEquals(BookingStatus.APPROVED, booking.getStatus());
+        assertEquals(BookingStatus.WAITING, taken.getStatus());
+        verify(bookingRepository).findAllWithItemByIdIn(Set.of(1L, 2L, 3L, 4L));
+        verify(bookingRepository).flush();
+        verify(bookingSummaryService).refresh(List.of(item.getId()));
+    }
+
+    @Test
+    void approveBookings_whenRejected_shouldNotReserveOrRefreshSummary() {
+        when(bookingRepository.findAllWithItemByIdIn(any())).thenReturn(List.of(booking));
+
+        List<BookingApprovalResultDto> results = bookingService.approveBookings(2L, List.of(1L), false);
+
+        assertEquals(List.of(new BookingApprovalResultDto(1L, BookingStatus.REJECTED, null)), results);
+        verifyNoInteractions(bookingSummaryService, bookingIntervalIndex);
+    }
+
+    @Test
+    void approveBookings_shouldSkipBookingsOfOtherOwners() {
+        when(bookingRepository.findAllWithItemByIdIn(any())).thenReturn(List.of(booking));
+
+        List<BookingApprovalResultDto> results = bookingService.approveBookings(1L, List.of(1L), true);
+
+        assertEquals(List.of(new BookingApprovalResultDto(1L, BookingStatus.WAITING,
+                "Подтверждение может выполнять только владелец вещи")), results);
+        verifyNoInteractions(bookingSummaryService, bookingIntervalIndex);
+    }
+
+    @Test
+    void approveBookings_shouldThrowValidationException_forEmptyList() {
+        assertThrows(ValidationException.class, () -> bookingService.approveBookings(1L, List.of(), true));
+        verifyNoInteractions(bookingRepository);
+    }
+
     @Test
     void getBooking_shouldReturnBookingDto_forBooker() {
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
@@ -188,7 +305,7 @@ class BookingServiceImplTest {
         when(userRepository.existsById(1L)).thenReturn(false);
 
         assertThrows(NotFoundException.class, () ->
-                bookingService.getUserBookings(1L, "ALL"));
+                bookingService.getUserBookings(1L, "ALL", null, 10));
     }
 
     @Test
@@ -196,7 +313,7 @@ class BookingServiceImplTest {
         when(userRepository.existsById(1L)).thenReturn(false);
 
         assertThrows(NotFoundException.class, () ->
-                bookingService.getOwnerBookings(1L, "ALL"));
+                bookingService.getOwnerBookings(1L, "ALL", null, 10));
     }
 
     @Test
@@ -204,17 +321,15 @@ class BookingServiceImplTest {
         when(userRepository.existsById(1L)).thenReturn(true);
         LocalDateTime now = LocalDateTime.now();
 
-        when(bookingRepository.findAllByBookerId(1L)).thenReturn(List.of(booking));
-        when(bookingRepository.findCurrentByBookerId(eq(1L), any(LocalDateTime.class))).thenReturn(List.of());
-        when(bookingRepository.findPastByBookerId(eq(1L), any(LocalDateTime.class))).thenReturn(List.of());
-        when(bookingRepository.findFutureByBookerId(eq(1L), any(LocalDateTime.class))).thenReturn(List.of());
-        when(bookingRepository.findWaitingByBookerId(1L)).thenReturn(List.of());
-        when(bookingRepository.findRejectedByBookerId(1L)).thenReturn(List.of());
-
-        when(bookingMapper.toDto(any())).thenReturn(bookingDto);
+        when(bookingRepository.findAllByBookerId(eq(1L), any(LocalDateTime.class), anyLong(), any(Limit.class))).thenReturn(List.of(bookingDto));
+        when(bookingRepository.findCurrentByBookerId(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Limit.class))).thenReturn(List.of());
+        when(bookingRepository.findPastByBookerId(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Limit.class))).thenReturn(List.of());
+        when(bookingRepository.findFutureByBookerId(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Limit.class))).thenReturn(List.of());
+        when(bookingRepository.findWaitingByBookerId(eq(1L), any(LocalDateTime.class), anyLong(), any(Limit.class))).thenReturn(List.of());
+        when(bookingRepository.findRejectedByBookerId(eq(1L), any(LocalDateTime.class), anyLong(), any(Limit.class))).thenReturn(List.of());
 
         for (String state : List.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED")) {
-            List<BookingDto> result = bookingService.getUserBookings(1L, state);
+            List<BookingDto> result = bookingService.getUserBookings(1L, state, null, 10);
             if (state.equals("ALL")) {
                 assertFalse(result.isEmpty());
             } else {
@@ -223,22 +338,58 @@ class BookingServiceImplTest {
         }
     }
 
+    @Test
+    void getUserBookings_shouldContinueFromCursor() {
+        LocalDateTime cursorStart = LocalDateTime.of(2025, 1, 1, 12, 0);
+        BookingDto last = new BookingDto();
+        last.setId(7L);
+        last.setStart(cursorStart);
+        String cursor = new KeysetCursor(last.getStart(), last.getId()).encode();
+
+        when(bookingRepository.findAllByBookerId(1L, cursorStart, 7L, Limit.of(5))).thenReturn(List.of(bookingDto));
+
+        List<BookingDto> result = bookingService.getUserBookings(1L, "ALL", cursor, 5);
+
+        assertEquals(List.of(bookingDto), result);
+        verify(userRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    void getUserBookings_shouldReturnWholeList_withoutSize() {
+        when(bookingRepository.findAllByBookerId(eq(1L), any(LocalDateTime.class), eq(Long.MAX_VALUE), eq(Limit.unlimited())))
+                .thenReturn(List.of(bookingDto));
+
+        List<BookingDto> result = bookingService.getUserBookings(1L, "ALL", null, null);
+
+        assertEquals(List.of(bookingDto), result);
+    }
+
+    @Test
+    void getUserBookings_shouldThrowValidation_forMalformedCursor() {
+        assertThrows(ValidationException.class, () ->
+                bookingService.getUserBookings(1L, "ALL", "not-a-cursor", 10));
+    }
+
+    @Test
+    void getOwnerBookings_shouldThrowValidation_forNonPositiveSize() {
+        assertThrows(ValidationException.class, () ->
+                bookingService.getOwnerBookings(1L, "ALL", null, 0));
+    }
+
     @Test
     void getOwnerBookings_shouldReturnListByAllStates() {
         when(userRepository.existsById(1L)).thenReturn(true);
         LocalDateTime now = LocalDateTime.now();
 
-        when(bookingRepository.findAllByOwnerId(1L)).thenReturn(List.of(booking));
-        when(bookingRepository.findCurrentByOwnerId(eq(1L), any(LocalDateTime.class))).thenReturn(List.of());
-        when(bookingRepository.findPastByOwnerId(eq(1L), any(LocalDateTime.class))).thenReturn(List.of());
-        when(bookingRepository.findFutureByOwnerId(eq(1L), any(LocalDateTime.class))).thenReturn(List.of());
-        when(bookingRepository.findWaitingByOwnerId(1L)).thenReturn(List.of());
-        when(bookingRepository.findRejectedByOwnerId(1L)).thenReturn(List.of());
-
-        when(bookingMapper.toDto(any())).thenReturn(bookingDto);
+        when(bookingRepository.findAllByOwnerId(eq(1L), any(LocalDateTime.class), anyLong(), any(Limit.class))).thenReturn(List.of(bookingDto));
+        when(bookingRepository.findCurrentByOwnerId(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Limit.class))).thenReturn(List.of());
+        when(bookingRepository.findPastByOwnerId(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Limit.class))).thenReturn(List.of());
+        when(bookingRepository.findFutureByOwnerId(eq(1L), any(LocalDateTime.class), any(LocalDateTime.class), anyLong(), any(Limit.class))).thenReturn(List.of());
+        when(bookingRepository.findWaitingByOwnerId(eq(1L), any(LocalDateTime.class), anyLong(), any(Limit.class))).thenReturn(List.of());
+        when(bookingRepository.findRejectedByOwnerId(eq(1L), any(LocalDateTime.class), anyLong(), any(Limit.class))).thenReturn(List.of());
 
         for (String state : List.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED")) {
-            List<BookingDto> result = bookingService.getOwnerBookings(1L, state);
+            List<BookingDto> result = bookingService.getOwnerBookings(1L, state, null, 10);
             if (state.equals("ALL")) {
                 assertFalse(result.isEmpty());
             } else {
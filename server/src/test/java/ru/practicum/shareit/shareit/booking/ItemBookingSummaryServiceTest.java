@@ -0,0 +1,108 @@
+package ru.practicum.shareit.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.ItemBookingTimeDto;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemBookingSummaryServiceTest {
+
+    @Mock
+    private ItemBookingSummaryRepository summaryRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private ItemBookingSummaryService summaryService;
+
+    @Test
+    void getSummaries_whenSummaryIsFresh_thenDoesNotQueryBookings() {
+        ItemBookingSummary summary = new ItemBookingSummary(1L, LocalDateTime.now().minusDays(1),
+                LocalDateTime.now().plusDays(1));
+        when(summaryRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(summary));
+
+        Map<Long, ItemBookingSummary> result = summaryService.getSummaries(List.of(1L, 2L));
+
+        assertEquals(Map.of(1L, summary), result);
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void getSummaries_whenNextBookingStarted_thenRecomputesWithoutSaving() {
+        LocalDateTime started = LocalDateTime.now().minusHours(1);
+        LocalDateTime startedEnd = started.plusDays(1);
+        LocalDateTime following = LocalDateTime.now().plusDays(3);
+        when(summaryRepository.findAllById(List.of(1L)))
+                .thenReturn(List.of(new ItemBookingSummary(1L, null, started)));
+        when(bookingRepository.findLastBookingTimes(eq(List.of(1L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(new ItemBookingTimeDto(1L, startedEnd)));
+        when(bookingRepository.findNextBookingTimes(eq(List.of(1L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(new ItemBookingTimeDto(1L, following)));
+
+        ItemBookingSummary result = summaryService.getSummaries(List.of(1L)).get(1L);
+
+        assertEquals(new ItemBookingSummary(1L, startedEnd, following), result);
+        verify(summaryRepository, never()).saveAll(any());
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void refresh_shouldStoreCurrentBookingTimes() {
+        LocalDateTime nextStart = LocalDateTime.now().plusDays(1);
+        ItemBookingSummary stored = new ItemBookingSummary(2L, LocalDateTime.now().minusDays(1), nextStart);
+        when(summaryRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(stored));
+        when(bookingRepository.findLastBookingTimes(eq(List.of(1L, 2L)), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        when(bookingRepository.findNextBookingTimes(eq(List.of(1L, 2L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(new ItemBookingTimeDto(1L, nextStart)));
+
+        summaryService.refresh(List.of(1L, 2L));
+
+        verify(summaryRepository).lockItems(List.of(1L, 2L));
+        verify(entityManager).persist(new ItemBookingSummary(1L, null, nextStart));
+        verifyNoMoreInteractions(entityManager);
+        assertEquals(new ItemBookingSummary(2L, null, null), stored);
+        verify(summaryRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void rollForward_shouldRefreshOnlyStartedSummaries() {
+        when(summaryRepository.findItemIdsToRollForward(any(LocalDateTime.class))).thenReturn(List.of(3L));
+        when(bookingRepository.findLastBookingTimes(eq(List.of(3L)), any(LocalDateTime.class))).thenReturn(List.of());
+        when(bookingRepository.findNextBookingTimes(eq(List.of(3L)), any(LocalDateTime.class))).thenReturn(List.of());
+
+        summaryService.rollForward();
+
+        verify(entityManager).persist(new ItemBookingSummary(3L, null, null));
+    }
+
+    @Test
+    void rollForward_whenNothingStarted_thenSavesNothing() {
+        when(summaryRepository.findItemIdsToRollForward(any(LocalDateTime.class))).thenReturn(List.of());
+
+        summaryService.rollForward();
+
+        verifyNoInteractions(bookingRepository, entityManager);
+    }
+}
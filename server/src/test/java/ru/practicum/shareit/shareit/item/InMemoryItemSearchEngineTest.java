@@ -0,0 +1,139 @@
+package ru.practicum.shareit.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InMemoryItemSearchEngine;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @InjectMocks
+    private InMemoryItemSearchEngine searchEngine;
+
+    private final Map<Long, Item> database = new HashMap<>();
+
+    @BeforeEach
+    void setup() {
+        save(item(1L, "Отвертка", "Подходит к дрели", true));
+        save(item(2L, "Супердрель", "Ударная", true));
+        save(item(3L, "Дрель", "Аккумуляторная дрель", true));
+        save(item(4L, "Дрель сломанная", "Недоступна", false));
+
+        when(itemRepository.findAll()).thenReturn(new ArrayList<>(database.values()));
+        lenient().when(itemRepository.findDtosByIdIn(anyList())).thenAnswer(invocation -> {
+            List<ItemDto> found = new ArrayList<>();
+            List<Long> ids = invocation.getArgument(0);
+            ids.forEach(id -> Optional.ofNullable(database.get(id))
+                    .ifPresent(item -> found.add(new ItemDto(item.getId(), item.getName(), item.getDescription(),
+                            item.getAvailable(), null))));
+            return found;
+        });
+
+        searchEngine.rebuild();
+    }
+
+    @Test
+    void search_shouldRankLikeSqlEngine() {
+        List<ItemDto> result = searchEngine.search("ДРЕЛ", 0, 10);
+
+        assertEquals(List.of(3L, 2L, 1L), ids(result));
+    }
+
+    @Test
+    void search_shouldReturnAllMatches_withoutSize() {
+        assertEquals(List.of(2L, 1L), ids(searchEngine.search("дрел", 1, null)));
+    }
+
+    @Test
+    void search_shouldPaginateRankedResult() {
+        List<ItemDto> result = searchEngine.search("дрел", 1, 1);
+
+        assertEquals(List.of(2L), ids(result));
+        // Совпадения до from тоже проверяются по базе, чтобы отсутствующие не сдвигали страницу
+        verify(itemRepository).findDtosByIdIn(List.of(3L, 2L));
+    }
+
+    @Test
+    void search_shouldMatchPhraseAcrossWords() {
+        assertEquals(List.of(3L), ids(searchEngine.search("ная дре", 0, 10)));
+        assertTrue(searchEngine.search("дрель ударная", 0, 10).isEmpty());
+    }
+
+    @Test
+    void search_noMatches_shouldNotQueryDatabase() {
+        assertTrue(searchEngine.search("пила", 0, 10).isEmpty());
+
+        verify(itemRepository, never()).findDtosByIdIn(anyList());
+    }
+
+    @Test
+    void index_shouldFollowAvailabilityAndTextChanges() {
+        Item broken = save(item(4L, "Дрель сломанная", "Починили", true));
+        searchEngine.index(broken);
+        Item renamed = save(item(3L, "Перфоратор", "Аккумуляторный", true));
+        searchEngine.index(renamed);
+        Item hidden = save(item(2L, "Супердрель", "Ударная", false));
+        searchEngine.index(hidden);
+
+        assertEquals(List.of(4L, 1L), ids(searchEngine.search("дрел", 0, 10)));
+        assertEquals(List.of(3L), ids(searchEngine.search("перфо", 0, 10)));
+    }
+
+    @Test
+    void search_shouldDropItemsMissingInDatabase() {
+        database.remove(2L);
+
+        assertEquals(List.of(3L, 1L), ids(searchEngine.search("дрел", 0, 10)));
+        assertEquals(List.of(3L, 1L), ids(searchEngine.search("дрел", 0, 10)));
+        verify(itemRepository).findDtosByIdIn(List.of(3L, 2L, 1L));
+        verify(itemRepository).findDtosByIdIn(List.of(3L, 1L));
+    }
+
+    @Test
+    void search_shouldSkipStaleItemsBeforeApplyingFrom() {
+        database.remove(3L);
+
+        // Как в SQL-поиске: вторая по рангу из существующих вещей, а не вторая в устаревшем индексе
+        assertEquals(List.of(1L), ids(searchEngine.search("дрел", 1, 1)));
+    }
+
+    @Test
+    void search_shouldFillPage_whenItemBecameUnavailableElsewhere() {
+        // Доступность сменили в базе, минуя index этого процесса
+        save(item(2L, "Супердрель", "Ударная", false));
+
+        assertEquals(List.of(3L, 1L), ids(searchEngine.search("дрел", 0, 2)));
+        verify(itemRepository).findDtosByIdIn(List.of(3L, 2L));
+        verify(itemRepository).findDtosByIdIn(List.of(1L));
+    }
+
+    private Item save(Item item) {
+        database.put(item.getId(), item);
+        return item;
+    }
+
+    private static Item item(Long id, String name, String description, boolean available) {
+        return new Item(id, name, description, available, null, null, null);
+    }
+
+    private static List<Long> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).toList();
+    }
+}
@@ -13,18 +13,27 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.dto.AvailabilityWindowDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoOutput;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -40,6 +49,8 @@ public class ItemControllerTest {
     private ObjectMapper objectMapper;
     @MockBean
     private ItemService itemService;
+    @MockBean
+    private ItemImportService itemImportService;
     private ItemDto itemDto;
     private ItemDtoOutput itemDtoOutput;
     private CommentDto commentDto;
@@ -88,11 +99,13 @@ public class ItemControllerTest {
     @Test
     @Order(3)
     void getItemByIdTest() throws Exception {
+        when(itemService.getItemVersionTag(1L, 1L)).thenReturn("\"v1\"");
         when(itemService.getItemById(anyLong(), anyLong())).thenReturn(itemDtoOutput);
 
         mockMvc.perform(get("/items/1")
                         .header(HEADER, 1L))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"v1\""))
                 .andExpect(jsonPath("$.id").value(1));
     }
 
@@ -110,16 +123,64 @@ public class ItemControllerTest {
     @Test
     @Order(5)
     void searchItemsTest() throws Exception {
-        when(itemService.searchItems("item")).thenReturn(Collections.singletonList(itemDto));
+        when(itemService.searchItems("item", 10, 5)).thenReturn(Collections.singletonList(itemDto));
 
         mockMvc.perform(get("/items/search")
-                        .param("text", "item"))
+                        .param("text", "item")
+                        .param("from", "10")
+                        .param("size", "5"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].name").value("Item"));
     }
 
     @Test
     @Order(6)
+    void getAvailabilityTest() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 8, 10, 0);
+        when(itemService.getAvailability(1L, from, to))
+                .thenReturn(List.of(new AvailabilityWindowDto(from, from.plusDays(1))));
+
+        mockMvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-08T10:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].start").value("2030-01-01T10:00:00"))
+                .andExpect(jsonPath("$[0].end").value("2030-01-02T10:00:00"));
+    }
+
+    @Test
+    @Order(7)
+    void getAvailabilityTest_defaultsToOneMonthFromFrom() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        when(itemService.getAvailability(1L, from, from.plusMonths(1))).thenReturn(List.of());
+
+        mockMvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-01T10:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+
+        verify(itemService).getAvailability(eq(1L), eq(from), eq(from.plusMonths(1)));
+    }
+
+    @Test
+    @Order(8)
+    void importItemsTest() throws Exception {
+        when(itemImportService.importItems(eq(1L), any())).thenReturn(new ItemImportResultDto(1,
+                List.of(new ItemImportErrorDto(2, "Дрель", "Название повторяется в импорте"))));
+
+        mockMvc.perform(post("/items/import")
+                        .header(HEADER, 1L)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}\n" +
+                                "{\"name\":\"Дрель\",\"description\":\"Повтор\",\"available\":true}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected[0].position").value(2));
+    }
+
+    @Test
+    @Order(9)
     void addCommentTest() throws Exception {
         when(itemService.addComment(anyLong(), anyLong(), any(CommentDto.class))).thenReturn(commentDto);
 
@@ -130,4 +191,18 @@ public class ItemControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.text").value("Great item!"));
     }
+
+    @Test
+    @Order(10)
+    void getItemById_whenETagMatches_thenNotModified() throws Exception {
+        when(itemService.getItemVersionTag(1L, 1L)).thenReturn("\"v1\"");
+
+        mockMvc.perform(get("/items/1")
+                        .header(HEADER, 1L)
+                        .header("If-None-Match", "\"v1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"v1\""));
+
+        verify(itemService, never()).getItemById(anyLong(), anyLong());
+    }
 }
@@ -6,11 +6,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.BookingIntervalDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
 import ru.practicum.shareit.exception.DuplicatedDataException;
 import ru.practicum.shareit.exception.ForbiddenException;
+import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.AvailabilityWindowDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoOutput;
@@ -20,6 +25,7 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -29,6 +35,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 
@@ -60,6 +67,12 @@ class ItemServiceImplTest {
     @Mock
     private ItemRequestRepository itemRequestRepository;
 
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+
+    @Mock
+    private ItemBookingSummaryService bookingSummaryService;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -110,6 +123,7 @@ class ItemServiceImplTest {
         verify(itemRepository).existsByOwnerIdAndNameIgnoreCase(user.getId(), itemDto.getName());
         verify(itemRequestRepository).findById(100L);
         verify(itemRepository).save(item);
+        verify(itemSearchEngine).index(item);
         verify(itemMapper).toItemDto(item);
     }
 
@@ -145,6 +159,7 @@ class ItemServiceImplTest {
 
         verify(itemRepository).findById(item.getId());
         verify(itemRepository).save(item);
+        verify(itemSearchEngine).index(item);
         verify(itemMapper).toItemDto(item);
     }
 
@@ -175,11 +190,27 @@ class ItemServiceImplTest {
         assertNotNull(result);
         verify(itemRepository).findById(item.getId());
         verify(commentRepository).findByItemIdOrderByCreatedDesc(item.getId());
-        verify(bookingRepository, never()).findLastBookingTime(anyLong(), any());
-        verify(bookingRepository, never()).findNextBookingTime(anyLong(), any());
+        verifyNoInteractions(bookingSummaryService);
         verify(itemMapper).toItemDtoOutput(eq(item), anyList(), isNull(), isNull());
     }
 
+    @Test
+    void getItemById_OwnerGetsBookingTimesFromSummary() {
+        LocalDateTime lastEnd = LocalDateTime.now().minusDays(1);
+        LocalDateTime nextStart = LocalDateTime.now().plusDays(1);
+        ItemDtoOutput output = new ItemDtoOutput();
+
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(commentRepository.findByItemIdOrderByCreatedDesc(item.getId())).thenReturn(Collections.emptyList());
+        when(bookingSummaryService.getSummaries(List.of(item.getId())))
+                .thenReturn(Map.of(item.getId(), new ItemBookingSummary(item.getId(), lastEnd, nextStart)));
+        when(itemMapper.toItemDtoOutput(item, List.of(), lastEnd, nextStart)).thenReturn(output);
+
+        assertSame(output, itemService.getItemById(user.getId(), item.getId()));
+
+        verifyNoInteractions(bookingRepository);
+    }
+
 
     @Test
     void getItemsByOwner_UserNotFound_Throws() {
@@ -191,30 +222,135 @@ class ItemServiceImplTest {
         assertEquals("Пользователь не найден", ex.getMessage());
 
         verify(userRepository).existsById(user.getId());
-        verify(itemRepository, never()).findAllByOwnerId(anyLong());
+        verify(itemRepository, never()).findDtosByOwnerId(anyLong());
+    }
+
+    @Test
+    void getItemsByOwner_LoadsCommentsAndBookingsForAllItemsAtOnce() {
+        ItemDtoOutput first = new ItemDtoOutput(item.getId(), item.getName(), item.getDescription(), true, user.getName());
+        ItemDtoOutput second = new ItemDtoOutput(11L, "Saw", "Saw description", true, user.getName());
+
+        Comment comment = new Comment();
+        comment.setId(1L);
+        comment.setItem(item);
+        comment.setAuthor(user);
+        CommentDto commentDto = new CommentDto(1L, "text", user.getName(), LocalDateTime.now());
+
+        LocalDateTime lastEnd = LocalDateTime.now().minusDays(1);
+        LocalDateTime nextStart = LocalDateTime.now().plusDays(1);
+        List<Long> itemIds = List.of(first.getId(), second.getId());
+
+        when(userRepository.existsById(user.getId())).thenReturn(true);
+        when(itemRepository.findDtosByOwnerId(user.getId())).thenReturn(List.of(first, second));
+        when(commentRepository.findByItemIdInOrderByCreatedDesc(itemIds)).thenReturn(List.of(comment));
+        when(bookingSummaryService.getSummaries(itemIds)).thenReturn(Map.of(
+                first.getId(), new ItemBookingSummary(first.getId(), lastEnd, null),
+                second.getId(), new ItemBookingSummary(second.getId(), null, nextStart)));
+        when(commentMapper.toDtoList(List.of(comment))).thenReturn(List.of(commentDto));
+        when(commentMapper.toDtoList(List.of())).thenReturn(List.of());
+
+        List<ItemDtoOutput> result = itemService.getItemsByOwner(user.getId());
+
+        assertEquals(List.of(first, second), result);
+        assertEquals(List.of(commentDto), first.getComments());
+        assertEquals(lastEnd, first.getLastBooking());
+        assertNull(first.getNextBooking());
+        assertTrue(second.getComments().isEmpty());
+        assertNull(second.getLastBooking());
+        assertEquals(nextStart, second.getNextBooking());
+        verify(commentRepository, never()).findByItemIdOrderByCreatedDesc(anyLong());
+        verifyNoInteractions(itemMapper);
+    }
+
+    @Test
+    void getItemsByOwner_NoItems_ReturnsEmptyList() {
+        when(userRepository.existsById(user.getId())).thenReturn(true);
+        when(itemRepository.findDtosByOwnerId(user.getId())).thenReturn(List.of());
+
+        List<ItemDtoOutput> result = itemService.getItemsByOwner(user.getId());
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(commentRepository, bookingSummaryService);
+    }
+
+    @Test
+    void getAvailability_ReturnsGapsBetweenApprovedBookings() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1).withNano(0);
+        LocalDateTime to = from.plusDays(10);
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.findApprovedIntervalsBetween(item.getId(), from, to)).thenReturn(List.of(
+                new BookingIntervalDto(1L, from.minusDays(1), from.plusDays(2)),
+                new BookingIntervalDto(2L, from.plusDays(2), from.plusDays(3)),
+                new BookingIntervalDto(3L, from.plusDays(5), from.plusDays(6))));
+
+        List<AvailabilityWindowDto> result = itemService.getAvailability(item.getId(), from, to);
+
+        assertEquals(List.of(
+                new AvailabilityWindowDto(from.plusDays(3), from.plusDays(5)),
+                new AvailabilityWindowDto(from.plusDays(6), to)), result);
+    }
+
+    @Test
+    void getAvailability_NoBookings_ReturnsWholePeriod() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1).withNano(0);
+        LocalDateTime to = from.plusDays(1);
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.findApprovedIntervalsBetween(item.getId(), from, to)).thenReturn(List.of());
+
+        assertEquals(List.of(new AvailabilityWindowDto(from, to)), itemService.getAvailability(item.getId(), from, to));
+    }
+
+    @Test
+    void getAvailability_PastPeriod_ReturnsEmptyList() {
+        LocalDateTime to = LocalDateTime.now().minusDays(1);
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+
+        assertTrue(itemService.getAvailability(item.getId(), to.minusDays(1), to).isEmpty());
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void getAvailability_InvalidPeriod_Throws() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+
+        assertThrows(ValidationException.class, () -> itemService.getAvailability(item.getId(), from, from));
+        verifyNoInteractions(itemRepository, bookingRepository);
+    }
+
+    @Test
+    void getAvailability_ItemNotFound_Throws() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        when(itemRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> itemService.getAvailability(99L, from, from.plusDays(1)));
+        verifyNoInteractions(bookingRepository);
     }
 
     @Test
     void searchItems_EmptyText_ReturnsEmptyList() {
-        List<ItemDto> result = itemService.searchItems("  ");
+        List<ItemDto> result = itemService.searchItems("  ", 0, 10);
 
         assertTrue(result.isEmpty());
-        verify(itemRepository, never()).findAvailableByText(anyString());
+        verifyNoInteractions(itemSearchEngine);
     }
 
     @Test
     void searchItems_FoundItems() {
-        List<Item> items = List.of(item);
-        List<ItemDto> itemDtos = List.of(itemDto);
+        when(itemSearchEngine.search("drill", 0, 10)).thenReturn(List.of(itemDto));
 
-        when(itemRepository.findAvailableByText("drill")).thenReturn(items);
-        when(itemMapper.toItemDto(any())).thenReturn(itemDto);
+        List<ItemDto> result = itemService.searchItems("drill", 0, 10);
 
-        List<ItemDto> result = itemService.searchItems("drill");
+        assertEquals(List.of(itemDto), result);
+        verify(itemSearchEngine).search("drill", 0, 10);
+        verifyNoInteractions(itemMapper);
+    }
+
+    @Test
+    void searchItems_InvalidPage_Throws() {
+        assertThrows(ValidationException.class, () -> itemService.searchItems("drill", -1, 10));
+        assertThrows(ValidationException.class, () -> itemService.searchItems("drill", 0, 0));
 
-        assertEquals(1, result.size());
-        verify(itemRepository).findAvailableByText("drill");
-        verify(itemMapper).toItemDto(any());
+        verifyNoInteractions(itemSearchEngine);
     }
 
     @Test
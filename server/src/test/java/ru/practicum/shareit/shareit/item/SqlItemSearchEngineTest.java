@@ -0,0 +1,78 @@
+package ru.practicum.shareit.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.SqlItemSearchEngine;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SqlItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @InjectMocks
+    private SqlItemSearchEngine searchEngine;
+
+    @Test
+    void search_shouldLowercaseTextAndRequestPage() {
+        ItemDto item = new ItemDto(1L, "Drill", "Cordless", true, null);
+
+        when(itemRepository.findAvailableByText(eq("drill"), any())).thenReturn(List.of(item));
+
+        List<ItemDto> result = searchEngine.search("DrIlL", 10, 5);
+
+        assertEquals(List.of(item), result);
+        Pageable page = requestedPage();
+        assertEquals(10, page.getOffset());
+        assertEquals(5, page.getPageSize());
+    }
+
+    @Test
+    void search_shouldUseFromAsOffset_whenNotMultipleOfSize() {
+        searchEngine.search("drill", 5, 10);
+
+        Pageable page = requestedPage();
+        assertEquals(5, page.getOffset());
+        assertEquals(10, page.getPageSize());
+    }
+
+    @Test
+    void search_shouldNotLimitRows_withoutSize() {
+        searchEngine.search("drill", 0, null);
+
+        assertTrue(requestedPage().isUnpaged());
+    }
+
+    @Test
+    void search_shouldNotOverflowNextPage_withoutSize() {
+        searchEngine.search("drill", 5, null);
+
+        Pageable page = requestedPage();
+        assertEquals(Integer.MAX_VALUE, page.getPageSize());
+        assertEquals(5L + Integer.MAX_VALUE, page.next().getOffset());
+        assertEquals(Long.MAX_VALUE, new OffsetPageRequest(Long.MAX_VALUE - 1, Integer.MAX_VALUE).next().getOffset());
+    }
+
+    private Pageable requestedPage() {
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(itemRepository).findAvailableByText(eq("drill"), captor.capture());
+        return captor.getValue();
+    }
+}
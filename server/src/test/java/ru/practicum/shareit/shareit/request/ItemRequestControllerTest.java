@@ -9,15 +9,19 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.KeysetPages;
 import ru.practicum.shareit.request.ItemRequestController;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -75,17 +79,47 @@ class ItemRequestControllerTest {
 
     @Test
     void getAllRequests_WithPagination_ReturnsList() throws Exception {
-        when(requestService.getAllRequests(1L, 0, 10)).thenReturn(List.of(requestDto));
+        when(requestService.getAllRequests(1L, null, 0, 10)).thenReturn(List.of(requestDto));
 
         mockMvc.perform(get("/requests/all")
                         .header("X-Sharer-User-Id", 1L)
-                        .param("from", "0")
                         .param("size", "10"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(KeysetPages.NEXT_CURSOR_HEADER))
                 .andExpect(jsonPath("$[0].id").value(requestDto.getId()))
                 .andExpect(jsonPath("$[0].description").value(requestDto.getDescription()));
 
-        verify(requestService).getAllRequests(1L, 0, 10);
+        verify(requestService).getAllRequests(1L, null, 0, 10);
+    }
+
+    @Test
+    void getAllRequests_WhenPageIsFull_ReturnsNextCursor() throws Exception {
+        requestDto.setCreated(LocalDateTime.of(2025, 1, 1, 12, 0));
+        String cursor = new KeysetCursor(LocalDateTime.of(2025, 2, 1, 12, 0), 5L).encode();
+        when(requestService.getAllRequests(1L, cursor, 0, 1)).thenReturn(List.of(requestDto));
+
+        mockMvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("cursor", cursor)
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(KeysetPages.NEXT_CURSOR_HEADER,
+                        new KeysetCursor(requestDto.getCreated(), requestDto.getId()).encode()))
+                .andExpect(jsonPath("$[0].id").value(requestDto.getId()));
+    }
+
+    @Test
+    void getAllRequests_WithFrom_PassesOffset() throws Exception {
+        when(requestService.getAllRequests(1L, null, 20, 10)).thenReturn(List.of(requestDto));
+
+        mockMvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("from", "20")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(requestDto.getId()));
+
+        verify(requestService).getAllRequests(1L, null, 20, 10);
     }
 
     @Test
@@ -7,13 +7,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.KeysetCursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemShortDto;
+import ru.practicum.shareit.request.dto.RequestedItemDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -21,6 +23,7 @@ import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -98,23 +101,18 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getOwnRequests_whenUserExists_thenReturnsList() {
-        List<ItemRequest> requests = List.of(request);
-
         when(userRepository.existsById(user.getId())).thenReturn(true);
-        when(requestRepository.findByRequesterIdOrderByCreatedDesc(user.getId())).thenReturn(requests);
-
-        // Мокаем itemRepository.findByRequestIdIn и mapper.toDto для полного вызова mapRequestsWithItems
-        when(itemRepository.findByRequestIdIn(List.of(request.getId()))).thenReturn(List.of(item));
-        when(mapper.toItemShortDto(item)).thenReturn(itemShortDto);
-        when(mapper.toDto(eq(request), anyList())).thenReturn(requestDto);
+        when(requestRepository.findDtosByRequesterId(user.getId())).thenReturn(List.of(requestDto));
+        when(itemRepository.findRequestedItems(List.of(request.getId())))
+                .thenReturn(List.of(new RequestedItemDto(request.getId(), itemShortDto)));
 
         List<ItemRequestDto> result = service.getOwnRequests(user.getId());
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
+        assertEquals(List.of(requestDto), result);
+        assertEquals(List.of(itemShortDto), result.get(0).getItems());
         verify(userRepository).existsById(user.getId());
-        verify(requestRepository).findByRequesterIdOrderByCreatedDesc(user.getId());
-        verify(itemRepository).findByRequestIdIn(anyList());
+        verify(requestRepository).findDtosByRequesterId(user.getId());
+        verifyNoInteractions(mapper);
     }
 
     @Test
@@ -127,31 +125,73 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getAllRequests_whenUserExists_thenReturnsList() {
-        List<ItemRequest> requests = List.of(request);
+        when(userRepository.existsById(user.getId())).thenReturn(true);
+        when(requestRepository.findAllExcludingUser(eq(user.getId()), any(LocalDateTime.class),
+                eq(Long.MAX_VALUE), eq(new OffsetPageRequest(0, 10))))
+                .thenReturn(List.of(requestDto));
+        when(itemRepository.findRequestedItems(List.of(request.getId()))).thenReturn(List.of());
+
+        List<ItemRequestDto> result = service.getAllRequests(user.getId(), null, 0, 10);
+
+        assertEquals(List.of(requestDto), result);
+        assertTrue(result.get(0).getItems().isEmpty());
 
+        verify(userRepository).existsById(user.getId());
+        verify(requestRepository).findAllExcludingUser(eq(user.getId()), any(LocalDateTime.class),
+                eq(Long.MAX_VALUE), eq(new OffsetPageRequest(0, 10)));
+        verify(itemRepository).findRequestedItems(List.of(request.getId()));
+    }
+
+    @Test
+    void getAllRequests_whenCursorGiven_thenContinuesAfterIt() {
+        LocalDateTime created = LocalDateTime.of(2025, 1, 1, 12, 0);
+        String cursor = new KeysetCursor(created, 7L).encode();
         when(userRepository.existsById(user.getId())).thenReturn(true);
-        when(requestRepository.findAllExcludingUser(eq(user.getId()), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(requests));
+        when(requestRepository.findAllExcludingUser(user.getId(), created, 7L, new OffsetPageRequest(0, 5))).thenReturn(List.of());
 
-        when(itemRepository.findByRequestIdIn(List.of(request.getId()))).thenReturn(List.of(item));
-        when(mapper.toItemShortDto(item)).thenReturn(itemShortDto);
-        when(mapper.toDto(eq(request), anyList())).thenReturn(requestDto);
+        assertTrue(service.getAllRequests(user.getId(), cursor, 0, 5).isEmpty());
 
-        List<ItemRequestDto> result = service.getAllRequests(user.getId(), 0, 10);
+        verify(requestRepository).findAllExcludingUser(user.getId(), created, 7L, new OffsetPageRequest(0, 5));
+    }
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
+    @Test
+    void getAllRequests_whenFromGivenWithoutCursor_thenSkipsOffset() {
+        when(userRepository.existsById(user.getId())).thenReturn(true);
+        when(requestRepository.findAllExcludingUser(eq(user.getId()), any(LocalDateTime.class),
+                eq(Long.MAX_VALUE), eq(new OffsetPageRequest(15, 10))))
+                .thenReturn(List.of());
 
-        verify(userRepository).existsById(user.getId());
-        verify(requestRepository).findAllExcludingUser(eq(user.getId()), any(Pageable.class));
-        verify(itemRepository).findByRequestIdIn(anyList());
+        assertTrue(service.getAllRequests(user.getId(), null, 15, 10).isEmpty());
+
+        verify(requestRepository).findAllExcludingUser(eq(user.getId()), any(LocalDateTime.class),
+                eq(Long.MAX_VALUE), eq(new OffsetPageRequest(15, 10)));
+    }
+
+    @Test
+    void getAllRequests_whenFromGivenWithCursor_thenThrowValidation() {
+        String cursor = new KeysetCursor(LocalDateTime.of(2025, 1, 1, 12, 0), 7L).encode();
+
+        ValidationException ex = assertThrows(ValidationException.class,
+                () -> service.getAllRequests(user.getId(), cursor, 10, 10));
+        assertEquals("Параметры cursor и from нельзя передавать вместе", ex.getMessage());
+
+        verifyNoInteractions(requestRepository);
+    }
+
+    @Test
+    void getAllRequests_whenCursorMalformed_thenThrowValidation() {
+        ValidationException ex = assertThrows(ValidationException.class,
+                () -> service.getAllRequests(user.getId(), "not-a-cursor", 0, 10));
+        assertEquals("Некорректный курсор: not-a-cursor", ex.getMessage());
+
+        verifyNoInteractions(requestRepository);
     }
 
     @Test
     void getAllRequests_whenUserNotExists_thenThrowNotFound() {
         when(userRepository.existsById(user.getId())).thenReturn(false);
 
-        NotFoundException ex = assertThrows(NotFoundException.class, () -> service.getAllRequests(user.getId(), 0, 10));
+        NotFoundException ex = assertThrows(NotFoundException.class, () -> service.getAllRequests(user.getId(), null, 0, 10));
         assertEquals("User not found: " + user.getId(), ex.getMessage());
     }
 
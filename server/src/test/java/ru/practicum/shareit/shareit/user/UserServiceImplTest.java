@@ -1,13 +1,21 @@
 package ru.practicum.shareit.shareit.user;
 
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
 import ru.practicum.shareit.exception.DuplicatedDataException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -29,6 +37,24 @@ class UserServiceImplTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ItemBookingSummaryService bookingSummaryService;
+
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -187,10 +213,23 @@ class UserServiceImplTest {
     @Test
     void delete_callsRepositoryDelete() {
         Long userId = 1L;
+        when(bookingRepository.findApprovedItemIdsByBookerId(userId)).thenReturn(List.of(7L));
+        when(itemRepository.findIdsByOwnerId(userId)).thenReturn(List.of(3L, 4L));
+        when(entityManagerFactory.getCache()).thenReturn(cache);
 
         userService.delete(userId);
 
         verify(userRepository).deleteById(userId);
+        verify(cache).evict(Item.class, 3L);
+        verify(cache).evict(Item.class, 4L);
+        verify(cache, never()).evict(Item.class);
+        verify(bookingIntervalIndex).evict(List.of(7L));
+        verify(bookingIntervalIndex).evict(List.of(3L, 4L));
+        // Удаление уходит в базу до пересчёта сводок
+        InOrder order = inOrder(userRepository, bookingSummaryService);
+        order.verify(userRepository).deleteById(userId);
+        order.verify(userRepository).flush();
+        order.verify(bookingSummaryService).refresh(List.of(7L));
     }
 }
 